@@ -0,0 +1,17 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread, as counted by the HotSpot thread allocation counters.
+ */
+public class Allocation {
+	
+	private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	public static long allocatedBytes()
+	{
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}
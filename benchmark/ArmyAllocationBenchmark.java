@@ -0,0 +1,147 @@
+package benchmark;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import core.ArmyAllocator;
+import core.ArmyUtility;
+
+/**
+ * Compares the ArmyAllocator, as botEvaluate uses it, with the placement loop botEvaluate had before: at most
+ * 50 passes over two PriorityQueues swapped when one runs empty, each giving round(armiesPerNeed * need).
+ * Both get the same random needs of n regions and k armies to place. Reported are the time per allocation
+ * and the share of the armies each one places; the loop can stop with armies left.
+ * Usage: ArmyAllocationBenchmark [seed]
+ */
+public class ArmyAllocationBenchmark {
+
+	static final long WARM_UP_MILLIS = 300;
+	static final long MEASURE_MILLIS = 1000;
+	static final int NEEDS = 64; //different need vectors per size, used in turn
+	static final int MAX_NEED = 30;
+
+	private static final int[] REGIONS = {5, 20, 100, 1000};
+	private static final int[] ARMIES = {5, 20, 100};
+
+	private static int sink; //keeps the results alive
+
+	public static void main(String[] args)
+	{
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+		System.out.printf("%7s %7s  %-10s %12s %12s %10s%n", "regions", "armies", "allocation", "ops/s", "us/op", "placed");
+		for(int n : REGIONS)
+		{
+			for(int k : ARMIES)
+			{
+				Random random = new Random(seed);
+				int[][] needs = new int[NEEDS][n];
+				for(int[] need : needs)
+					for(int i=0; i<n; i++)
+						need[i] = 1 + random.nextInt(MAX_NEED);
+				measure("heap", n, k, needs, true);
+				measure("loop", n, k, needs, false);
+			}
+		}
+	}
+
+	private static void measure(String name, int n, int k, int[][] needs, boolean heap)
+	{
+		ArmyAllocator allocator = new ArmyAllocator();
+		run(allocator, k, needs, heap, WARM_UP_MILLIS);
+		long placed = 0;
+		for(int[] need : needs)
+			placed += heap ? sum(allocate(allocator, need, k)) : sum(loop(need, k));
+
+		long time = System.nanoTime();
+		long ops = run(allocator, k, needs, heap, MEASURE_MILLIS);
+		time = System.nanoTime() - time;
+		System.out.printf("%7d %7d  %-10s %12.1f %12.2f %9.1f%%%n", n, k, name, ops * 1e9 / time, time / 1000.0 / ops,
+				100.0 * placed / ((long) k * needs.length));
+	}
+
+	//allocates until the time is over, at least once
+	private static long run(ArmyAllocator allocator, int k, int[][] needs, boolean heap, long millis)
+	{
+		long end = System.nanoTime() + millis * 1000000L;
+		long ops = 0;
+		do {
+			int[] need = needs[(int) (ops % needs.length)];
+			int[] placed = heap ? allocate(allocator, need, k) : loop(need, k);
+			sink += placed[0];
+			ops++;
+		} while(System.nanoTime() < end);
+		return ops;
+	}
+
+	//the utility of botEvaluate: need per army already placed
+	private static int[] allocate(ArmyAllocator allocator, final int[] need, int armies)
+	{
+		return allocator.allocate(need.length, armies, new ArmyUtility() {
+			@Override
+			public double marginal(int item, int placed) {
+				return need[item] / (placed + 1.0);
+			}
+		});
+	}
+
+	//need of a region in the queues of the old loop, the highest need first
+	private static class Wrapper implements Comparable<Wrapper> {
+
+		final int item;
+		final int need;
+
+		Wrapper(int item, int need)
+		{
+			this.item = item;
+			this.need = need;
+		}
+
+		@Override
+		public int compareTo(Wrapper other) {
+			return other.need - need;
+		}
+
+	}
+
+	//the placement loop of botEvaluate before the ArmyAllocator
+	private static int[] loop(int[] need, int armies)
+	{
+		int[] placed = new int[need.length];
+		PriorityQueue<Wrapper> gettingArmies = new PriorityQueue<Wrapper>();
+		PriorityQueue<Wrapper> givenArmies = new PriorityQueue<Wrapper>();
+		int totalNeed = 0;
+		for(int i=0; i<need.length; i++)
+		{
+			totalNeed += need[i];
+			gettingArmies.add(new Wrapper(i, need[i]));
+		}
+		double armiesPerNeed = (armies+0.0)/totalNeed;
+		int numArmies = armies;
+		int i = 0;
+		while(numArmies > 0 && i < 50)
+		{
+			if(gettingArmies.size() == 0 && givenArmies.size() > 0)
+			{
+				PriorityQueue<Wrapper> nowEmpty = gettingArmies;
+				gettingArmies = givenArmies;
+				givenArmies = nowEmpty;
+			}
+			Wrapper current = gettingArmies.poll();
+			givenArmies.add(current);
+			int armiesAdding = Math.min((int) Math.round(armiesPerNeed*current.need), numArmies);
+			placed[current.item] += armiesAdding;
+			numArmies -= armiesAdding;
+			i++;
+		}
+		return placed;
+	}
+
+	private static long sum(int[] values)
+	{
+		long sum = 0;
+		for(int value : values)
+			sum += value;
+		return sum;
+	}
+
+}
@@ -0,0 +1,208 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import localEngine.BotPackage;
+import localEngine.BotPackagePlayer;
+import localEngine.LocalEngine;
+import localEngine.Player;
+import localEngine.StandardMap;
+import main.Region;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Throughput and allocation of getPlaceArmiesMoves and getAttackTransferMoves of every bot, on positions
+ * of the standard map recorded from a LocalEngine game and on synthetic maps of 500 and 5000 regions with
+ * a growing number of our regions. A BotState is set up once per bot and position, only the two calls are measured.
+ * The bots get a timeOut of 0, so the anytime search of botEvaluate is left out. What the bots print to
+ * System.out is discarded.
+ * Usage: BotStarterBenchmark bot [bot...], a bot is the package of its BotStarter, like borderBot.
+ */
+public class BotStarterBenchmark {
+
+	static final long WARM_UP_MILLIS = 300;
+	static final long MEASURE_MILLIS = 1000;
+
+	private static final PrintStream out = System.out;
+
+	//the messages that put a BotState in the position to measure
+	private static class Position {
+
+		final String name;
+		final String[][] setup;
+		final String[] update;
+		final int startingArmies;
+		final int ownedRegions;
+
+		Position(String name, String[][] setup, String[] update, int startingArmies)
+		{
+			this.name = name;
+			this.setup = setup;
+			this.update = update;
+			this.startingArmies = startingArmies;
+			int owned = 0;
+			for(int i=2; i<update.length; i+=3)
+				if(update[i].equals("player1"))
+					owned++;
+			this.ownedRegions = owned;
+		}
+
+	}
+
+	public static void main(String[] args)
+	{
+		if(args.length == 0)
+		{
+			System.err.println("usage: BotStarterBenchmark bot [bot...]");
+			return;
+		}
+		BotPackage[] bots = new BotPackage[args.length];
+		for(int i=0; i<args.length; i++)
+			bots[i] = new BotPackage(args[i]);
+
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {}
+			@Override
+			public void write(byte[] b, int off, int len) {}
+		}));
+
+		ArrayList<Position> positions = new ArrayList<Position>();
+		positions.addAll(recordStandardPositions(bots[0], new int[] {1, 10, 20}));
+		positions.addAll(syntheticPositions(500, new int[] {1, 5, 15}));
+		positions.addAll(syntheticPositions(5000, new int[] {1, 10, 30}));
+
+		out.printf("%-24s %-16s %6s %-7s %12s %12s %12s %10s%n",
+				"bot", "map", "owned", "call", "ops/s", "us/op", "bytes/op", "MB/s");
+		for(Position position : positions)
+			for(BotPackage bot : bots)
+				measure(bot, position);
+	}
+
+	/**
+	 * Plays a game of the bot against itself and keeps what player1 was sent in the given rounds,
+	 * or in the last round if the game ended before.
+	 */
+	private static ArrayList<Position> recordStandardPositions(BotPackage bot, int[] rounds)
+	{
+		final ArrayList<String[]> updates = new ArrayList<String[]>();
+		final ArrayList<Integer> startingArmies = new ArrayList<Integer>();
+		final BotPackagePlayer player1 = bot.newPlayer();
+		player1.setRandomSeed(1);
+		Player recorder = new Player() {
+			@Override
+			public void updateSettings(String key, String value) {
+				if(key.equals("starting_armies"))
+					startingArmies.add(Integer.parseInt(value));
+				player1.updateSettings(key, value);
+			}
+			@Override
+			public void setupMap(String[] parts) {
+				player1.setupMap(parts);
+			}
+			@Override
+			public ArrayList<Region> getPreferredStartingRegions(String[] parts, long timeOut) {
+				return player1.getPreferredStartingRegions(parts, timeOut);
+			}
+			@Override
+			public void updateMap(String[] parts) {
+				updates.add(parts);
+				player1.updateMap(parts);
+			}
+			@Override
+			public ArrayList<PlaceArmiesMove> getPlaceArmiesMoves(long timeOut) {
+				return player1.getPlaceArmiesMoves(timeOut);
+			}
+			@Override
+			public ArrayList<AttackTransferMove> getAttackTransferMoves(long timeOut) {
+				return player1.getAttackTransferMoves(timeOut);
+			}
+		};
+		BotPackagePlayer player2 = bot.newPlayer();
+		player2.setRandomSeed(2);
+		new LocalEngine(StandardMap.setupMessages(), recorder, player2, 1).play();
+
+		ArrayList<Position> positions = new ArrayList<Position>();
+		for(int round : rounds)
+		{
+			int index = Math.min(round, updates.size()) - 1;
+			positions.add(new Position("standard r" + (index+1), StandardMap.setupMessages(), updates.get(index), startingArmies.get(index)));
+		}
+		return positions;
+	}
+
+	//positions where player1 owns a square of side x side regions in the corner of a synthetic map
+	private static ArrayList<Position> syntheticPositions(int numRegions, int[] sides)
+	{
+		SyntheticMap map = new SyntheticMap(numRegions, 6, 42);
+		String[][] setup = { map.superRegionsLine(), map.regionsLine(), map.neighborsLine() };
+		ArrayList<Position> positions = new ArrayList<Position>();
+		for(int side : sides)
+		{
+			String[] update = map.updateLine(5 * (side-1));
+			//about what the super region rewards would add to the 5 armies per round
+			int startingArmies = 5 + side * side / 10;
+			positions.add(new Position("grid " + map.getNumRegions(), setup, update, startingArmies));
+		}
+		return positions;
+	}
+
+	private static void measure(BotPackage bot, Position position)
+	{
+		BotPackagePlayer player = bot.newPlayer();
+		player.setRandomSeed(1);
+		try {
+			player.updateSettings("your_bot", "player1");
+			player.updateSettings("opponent_bot", "player2");
+			for(String[] message : position.setup)
+				player.setupMap(message);
+			player.updateSettings("starting_armies", String.valueOf(position.startingArmies));
+			player.updateMap(position.update);
+		}
+		catch(RuntimeException e) {
+			report(bot, position, "setup", "fails with " + e);
+			return;
+		}
+		for(int call=0; call<2; call++)
+		{
+			String name = call == 0 ? "place" : "attack";
+			try {
+				run(player, call, WARM_UP_MILLIS);
+				long bytes = Allocation.allocatedBytes();
+				long time = System.nanoTime();
+				long ops = run(player, call, MEASURE_MILLIS);
+				time = System.nanoTime() - time;
+				bytes = Allocation.allocatedBytes() - bytes;
+				report(bot, position, name, String.format("%12.1f %12.1f %12d %10.1f",
+						ops * 1e9 / time, time / 1000.0 / ops, bytes / ops, bytes * 1e3 / time));
+			}
+			catch(RuntimeException e) {
+				report(bot, position, name, "fails with " + e);
+			}
+		}
+	}
+
+	//calls the bot until the time is over, at least once
+	private static long run(BotPackagePlayer player, int call, long millis)
+	{
+		long end = System.nanoTime() + millis * 1000000L;
+		long ops = 0;
+		do {
+			if(call == 0)
+				player.getPlaceArmiesMoves(0);
+			else
+				player.getAttackTransferMoves(0);
+			ops++;
+		} while(System.nanoTime() < end);
+		return ops;
+	}
+
+	private static void report(BotPackage bot, Position position, String call, String result)
+	{
+		out.printf("%-24s %-16s %6d %-7s %s%n", bot.getName(), position.name, position.ownedRegions, call, result);
+	}
+
+}
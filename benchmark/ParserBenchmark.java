@@ -0,0 +1,120 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import core.Bot;
+import core.BotParser;
+import core.BotState;
+import main.Region;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Input throughput of BotParser with the Scanner and with the ProtocolReader, on engine transcripts
+ * (the raw lines the engine sends to the bot). The bot makes no moves, so only reading and updating
+ * the state is measured.
+ * Usage: ParserBenchmark [transcript files...], without files a transcript is generated on a synthetic map.
+ */
+public class ParserBenchmark {
+	
+	public static void main(String[] args) throws IOException
+	{
+		ArrayList<byte[]> transcripts = new ArrayList<byte[]>();
+		for(String file : args)
+			transcripts.add(Files.readAllBytes(Paths.get(file)));
+		if(transcripts.isEmpty())
+			for(int seed=0; seed<20; seed++)
+				transcripts.add(syntheticTranscript(new SyntheticMap(400, 6, seed), 150));
+		
+		long totalBytes = 0;
+		int totalLines = 0;
+		for(byte[] transcript : transcripts)
+		{
+			totalBytes += transcript.length;
+			for(byte b : transcript)
+				if(b == '\n')
+					totalLines++;
+		}
+		System.out.println(transcripts.size() + " transcripts, " + totalLines + " lines, " + totalBytes + " bytes");
+		
+		PrintStream out = System.out;
+		PrintStream discard = new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {}
+			@Override
+			public void write(byte[] b, int off, int len) {}
+		});
+		
+		for(int run=0; run<3; run++) //first runs are warm up
+		{
+			for(int mode=0; mode<2; mode++)
+			{
+				boolean byteInput = mode == 1;
+				long bytes = Allocation.allocatedBytes();
+				long time = System.nanoTime();
+				System.setOut(discard);
+				for(byte[] transcript : transcripts)
+					new BotParser(new IdleBot(), new ByteArrayInputStream(transcript), byteInput).run();
+				System.setOut(out);
+				time = System.nanoTime() - time;
+				bytes = Allocation.allocatedBytes() - bytes;
+				
+				if(run == 2)
+					System.out.printf("%-8s %8.1f MB/s %10.0f lines/s %8d bytes allocated/line%n", byteInput ? "bytes" : "scanner",
+							totalBytes / (time / 1e9) / 1e6, totalLines / (time / 1e9), bytes / totalLines);
+			}
+		}
+	}
+	
+	static byte[] syntheticTranscript(SyntheticMap map, int rounds)
+	{
+		StringBuilder transcript = new StringBuilder();
+		transcript.append("settings your_bot player1\n");
+		transcript.append("settings opponent_bot player2\n");
+		appendLine(transcript, map.superRegionsLine());
+		appendLine(transcript, map.regionsLine());
+		appendLine(transcript, map.neighborsLine());
+		transcript.append("pick_starting_regions 2000 1 2 3 4 5 6 7 8 9 10 11 12\n");
+		for(int round=0; round<rounds; round++)
+		{
+			transcript.append("settings starting_armies 5\n");
+			appendLine(transcript, map.updateLine(round));
+			transcript.append("go place_armies 2000\n");
+			transcript.append("go attack/transfer 2000\n");
+		}
+		return transcript.toString().getBytes();
+	}
+	
+	private static void appendLine(StringBuilder transcript, String[] parts)
+	{
+		for(int i=0; i<parts.length; i++)
+			transcript.append(i == 0 ? "" : " ").append(parts[i]);
+		transcript.append('\n');
+	}
+	
+	private static class IdleBot implements Bot {
+		
+		@Override
+		public ArrayList<Region> getPreferredStartingRegions(BotState state, Long timeOut) {
+			return new ArrayList<Region>();
+		}
+		
+		@Override
+		public ArrayList<PlaceArmiesMove> getPlaceArmiesMoves(BotState state, Long timeOut) {
+			return new ArrayList<PlaceArmiesMove>();
+		}
+		
+		@Override
+		public ArrayList<AttackTransferMove> getAttackTransferMoves(BotState state, Long timeOut) {
+			return new ArrayList<AttackTransferMove>();
+		}
+		
+	}
+
+}
@@ -0,0 +1,135 @@
+package benchmark;
+
+import java.util.ArrayList;
+
+import core.BotState;
+import main.Map;
+import main.Region;
+import main.SuperRegion;
+
+/**
+ * Compares the setup of BotState, which looks regions and super regions up in arrays indexed by id, with the
+ * setup BotState had before, which looked them up with Map.getRegion and Map.getSuperRegion and added them with
+ * Map.add, all searching the lists of the map. Measured are the three setup_map lines, the pickable starting
+ * regions and the first update_map, which copies the full map. The neighbors are added one by one in both, because
+ * setupMap also analyzes the map when it gets them; that analysis, the Topology, is timed on its own line.
+ * Usage: SetupMapBenchmark [regions...]
+ */
+public class SetupMapBenchmark {
+
+	public static void main(String[] args)
+	{
+		int[] sizes = {1000, 10000};
+		if(args.length > 0)
+		{
+			sizes = new int[args.length];
+			for(int i=0; i<args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+
+		for(int numRegions : sizes)
+		{
+			SyntheticMap map = new SyntheticMap(numRegions, 8, 42);
+			String[][] setup = { map.superRegionsLine(), map.regionsLine(), map.neighborsLine() };
+			String[] pickable = pickableLine(map);
+			String[] update = map.updateLine(0);
+
+			System.out.println(map.getNumRegions() + " regions, " + map.getNumSuperRegions() + " super regions");
+			for(int run=0; run<3; run++) //first runs are warm up
+			{
+				boolean report = run == 2;
+
+				long time = System.nanoTime();
+				BotState state = new BotState();
+				state.updateSettings("your_bot", "player1");
+				state.updateSettings("opponent_bot", "player2");
+				state.setupMap(setup[0]);
+				state.setupMap(setup[1]);
+				addNeighbors(state, setup[2]);
+				state.setPickableStartingRegions(pickable);
+				state.setIncrementalMapUpdate(false);
+				state.updateMap(update);
+				time = System.nanoTime() - time;
+				if(report)
+					System.out.printf("%-9s %10.2f ms%n", "by id", time / 1e6);
+
+				time = System.nanoTime();
+				state.getTopology();
+				time = System.nanoTime() - time;
+				if(report)
+					System.out.printf("%-9s %10.2f ms%n", "topology", time / 1e6);
+
+				time = System.nanoTime();
+				Map visibleMap = listSetup(setup, pickable, update);
+				time = System.nanoTime() - time;
+				if(report)
+					System.out.printf("%-9s %10.2f ms%n", "by list", time / 1e6);
+
+				if(visibleMap.getRegions().size() != state.getVisibleMap().getRegions().size())
+					throw new IllegalStateException("the setups give different maps");
+			}
+		}
+	}
+
+	//the neighbors line like setupMap reads it, without the Topology it computes after it
+	private static void addNeighbors(BotState state, String[] line)
+	{
+		for(int i=2; i<line.length; i+=2)
+		{
+			int regionId = Integer.parseInt(line[i]);
+			for(String neighborId : line[i+1].split(","))
+				state.addNeighbor(regionId, Integer.parseInt(neighborId));
+		}
+	}
+
+	//two regions of every super region, like the engine gives
+	private static String[] pickableLine(SyntheticMap map)
+	{
+		BotState state = new BotState();
+		state.setupMap(map.superRegionsLine());
+		state.setupMap(map.regionsLine());
+		ArrayList<String> parts = new ArrayList<String>();
+		parts.add("pick_starting_regions");
+		parts.add("2000");
+		for(SuperRegion superRegion : state.getFullMap().getSuperRegions())
+			for(int i=0; i<Math.min(2, superRegion.getSubRegions().size()); i++)
+				parts.add(String.valueOf(superRegion.getSubRegions().get(i).getId()));
+		return parts.toArray(new String[parts.size()]);
+	}
+
+	//the setup of BotState before the id-indexed arrays, returns the visible map
+	private static Map listSetup(String[][] setup, String[] pickable, String[] update)
+	{
+		Map fullMap = new Map();
+		for(int i=2; i<setup[0].length; i+=2)
+			fullMap.add(new SuperRegion(Integer.parseInt(setup[0][i]), Integer.parseInt(setup[0][i+1])));
+		for(int i=2; i<setup[1].length; i+=2)
+			fullMap.add(new Region(Integer.parseInt(setup[1][i]), fullMap.getSuperRegion(Integer.parseInt(setup[1][i+1]))));
+		for(int i=2; i<setup[2].length; i+=2)
+		{
+			Region region = fullMap.getRegion(Integer.parseInt(setup[2][i]));
+			for(String neighborId : setup[2][i+1].split(","))
+				region.addNeighbor(fullMap.getRegion(Integer.parseInt(neighborId)));
+		}
+
+		ArrayList<Region> pickableStartingRegions = new ArrayList<Region>();
+		for(int i=2; i<pickable.length; i++)
+			pickableStartingRegions.add(fullMap.getRegion(Integer.parseInt(pickable[i])));
+
+		Map visibleMap = fullMap.getMapCopy();
+		for(int i=1; i<update.length; i+=3)
+		{
+			Region region = visibleMap.getRegion(Integer.parseInt(update[i]));
+			region.setPlayerName(update[i+1]);
+			region.setArmies(Integer.parseInt(update[i+2]));
+		}
+		ArrayList<Region> unknownRegions = new ArrayList<Region>();
+		for(Region region : visibleMap.getRegions())
+			if(region.getPlayerName().equals("unknown"))
+				unknownRegions.add(region);
+		for(Region unknownRegion : unknownRegions)
+			visibleMap.getRegions().remove(unknownRegion);
+		return visibleMap;
+	}
+
+}
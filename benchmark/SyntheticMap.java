@@ -0,0 +1,128 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates the engine messages for a grid shaped map of any size, so BotState can be fed
+ * maps much larger than the standard one the same way BotParser does.
+ * Regions are numbered row by row starting at 1, every block of superRegionSize x superRegionSize
+ * regions forms a super region.
+ */
+public class SyntheticMap {
+	
+	private final int width;
+	private final int height;
+	private final int superRegionSize;
+	private final Random random;
+	
+	public SyntheticMap(int numRegions, int superRegionSize, long seed)
+	{
+		this.width = (int) Math.ceil(Math.sqrt(numRegions));
+		this.height = (int) Math.ceil((double) numRegions / width);
+		this.superRegionSize = superRegionSize;
+		this.random = new Random(seed);
+	}
+	
+	public int getNumRegions(){
+		return width * height;
+	}
+	
+	public int getNumSuperRegions(){
+		return superRegionsPerRow() * (int) Math.ceil((double) height / superRegionSize);
+	}
+	
+	private int superRegionsPerRow(){
+		return (int) Math.ceil((double) width / superRegionSize);
+	}
+	
+	private int superRegionOf(int regionId)
+	{
+		int x = (regionId-1) % width;
+		int y = (regionId-1) / width;
+		return (y / superRegionSize) * superRegionsPerRow() + x / superRegionSize + 1;
+	}
+	
+	public String[] superRegionsLine()
+	{
+		ArrayList<String> parts = new ArrayList<String>();
+		parts.add("setup_map");
+		parts.add("super_regions");
+		for(int id=1; id<=getNumSuperRegions(); id++)
+		{
+			parts.add(String.valueOf(id));
+			parts.add(String.valueOf(1 + random.nextInt(superRegionSize * 2)));
+		}
+		return parts.toArray(new String[parts.size()]);
+	}
+	
+	public String[] regionsLine()
+	{
+		ArrayList<String> parts = new ArrayList<String>();
+		parts.add("setup_map");
+		parts.add("regions");
+		for(int id=1; id<=getNumRegions(); id++)
+		{
+			parts.add(String.valueOf(id));
+			parts.add(String.valueOf(superRegionOf(id)));
+		}
+		return parts.toArray(new String[parts.size()]);
+	}
+	
+	//like the engine, every connection is only given once, from the region with the lower id
+	public String[] neighborsLine()
+	{
+		ArrayList<String> parts = new ArrayList<String>();
+		parts.add("setup_map");
+		parts.add("neighbors");
+		for(int id=1; id<=getNumRegions(); id++)
+		{
+			int x = (id-1) % width;
+			int y = (id-1) / width;
+			String neighbors = "";
+			if(x+1 < width)
+				neighbors += (id+1);
+			if(y+1 < height)
+				neighbors += (neighbors.length() > 0 ? "," : "") + (id+width);
+			if(neighbors.length() > 0)
+			{
+				parts.add(String.valueOf(id));
+				parts.add(neighbors);
+			}
+		}
+		return parts.toArray(new String[parts.size()]);
+	}
+	
+	/**
+	 * An update_map message as seen by player1 in the given round: player1 owns a square in the top left
+	 * corner that grows every few rounds, player2 the same in the bottom right corner, and every region
+	 * next to one of player1's is visible as well.
+	 */
+	public String[] updateLine(int round)
+	{
+		int mySide = Math.min(width, 1 + round / 5);
+		int opponentSide = Math.min(width, 1 + round / 7);
+		
+		ArrayList<String> parts = new ArrayList<String>();
+		parts.add("update_map");
+		for(int id=1; id<=getNumRegions(); id++)
+		{
+			int x = (id-1) % width;
+			int y = (id-1) / width;
+			String owner;
+			if(x < mySide && y < mySide)
+				owner = "player1";
+			else if(x > mySide || y > mySide)
+				continue;
+			else if(width-1-x < opponentSide && height-1-y < opponentSide)
+				owner = "player2";
+			else
+				owner = "neutral";
+			parts.add(String.valueOf(id));
+			parts.add(owner);
+			parts.add(String.valueOf(1 + random.nextInt(10)));
+		}
+		return parts.toArray(new String[parts.size()]);
+	}
+
+}
@@ -0,0 +1,149 @@
+package benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import core.BotState;
+import core.MapSnapshot;
+import core.Topology;
+import core.TopologyCache;
+
+/**
+ * Checks that a Topology read back from a TopologyCache is the one that was written, on a map whose distances
+ * don't fit in bytes, so the file holds a matrix of shorts. Then damages the file, once cut in half and once
+ * with a list length far beyond the file, and checks that the cache computes the topology again instead of
+ * reading it, and writes a good file for the next game. Prints what went wrong and exits with 1 if anything did.
+ * Usage: TopologyCacheCheck [regions]
+ */
+public class TopologyCacheCheck {
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws IOException
+	{
+		int numRegions = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+		File directory = Files.createTempDirectory("topology").toFile();
+		try {
+			TopologyCache cache = new TopologyCache(directory);
+			BotState state = map(numRegions, null);
+			MapSnapshot map = state.getMapSnapshot();
+			Topology computed = state.getTopology();
+			check(computed.getMaxDistance() >= 255, "the longest distance is " + computed.getMaxDistance() + ", it fits in a byte");
+
+			String messages = load(numRegions, cache, map, computed);
+			check(messages.isEmpty(), "the first game reported " + messages);
+			File file = cacheFile(directory);
+			check(file != null, "no cache file was written");
+			if(file != null)
+				checkFile(file, numRegions, cache, map, computed);
+		}
+		finally {
+			for(File file : directory.listFiles())
+				file.delete();
+			directory.delete();
+		}
+		System.out.println(failures + " failures");
+		if(failures > 0)
+			System.exit(1);
+	}
+
+	//reads the file back, then cut in half and with a damaged length
+	private static void checkFile(File file, int numRegions, TopologyCache cache, MapSnapshot map, Topology computed) throws IOException
+	{
+		long length = file.length();
+
+		String messages = load(numRegions, cache, map, computed);
+		check(messages.isEmpty(), "reading the file reported " + messages);
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		replace(file, Arrays.copyOf(bytes, bytes.length / 2));
+		messages = load(numRegions, cache, map, computed);
+		check(!messages.isEmpty(), "a truncated file was read");
+		check(file.length() == length, "the truncated file was not written again");
+
+		ByteBuffer damaged = ByteBuffer.wrap(bytes.clone());
+		damaged.putInt(32, Integer.MAX_VALUE); //the number of articulation points, right after the header
+		replace(file, damaged.array());
+		messages = load(numRegions, cache, map, computed);
+		check(!messages.isEmpty(), "a file with a damaged length was read");
+		check(file.length() == length, "the damaged file was not written again");
+
+		System.out.println(numRegions + " regions, longest distance " + computed.getMaxDistance() + ", cache file of "
+				+ length + " bytes");
+	}
+
+	//a chain of regions with a loop at its start, so there are regions on a cycle and articulation points
+	private static BotState map(int numRegions, TopologyCache cache)
+	{
+		BotState state = TopologyCheck.chain(numRegions);
+		state.addNeighbor(1, 20);
+		state.setTopologyCache(cache);
+		return state;
+	}
+
+	//the topology of the map through the cache, compared with the computed one, returns what the cache reported
+	private static String load(int numRegions, TopologyCache cache, MapSnapshot map, Topology computed)
+	{
+		PrintStream err = System.err;
+		ByteArrayOutputStream messages = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(messages, true));
+		Topology topology;
+		try {
+			topology = map(numRegions, cache).getTopology();
+		}
+		finally {
+			System.setErr(err);
+		}
+		compare(map, computed, topology);
+		return messages.toString().trim();
+	}
+
+	private static void compare(MapSnapshot map, Topology expected, Topology actual)
+	{
+		check(actual.hasDistanceMatrix(), "the cached topology has no distance matrix");
+		check(actual.getMaxDistance() == expected.getMaxDistance(), "the longest distance is " + actual.getMaxDistance());
+		check(Arrays.equals(actual.getArticulationPoints(), expected.getArticulationPoints()), "the articulation points differ");
+		for(int s=0; s<map.numSuperRegions; s++)
+		{
+			check(Arrays.equals(actual.getBorderRegions(s), expected.getBorderRegions(s)), "the border regions of " + s + " differ");
+			check(Arrays.equals(actual.getEntryRegions(s), expected.getEntryRegions(s)), "the entry regions of " + s + " differ");
+			check(actual.getRewardPerBorder(s) == expected.getRewardPerBorder(s), "the reward per border of " + s + " differs");
+		}
+		int wrong = 0;
+		for(int from=0; from<map.numRegions; from++)
+			for(int to=0; to<map.numRegions; to++)
+				if(actual.distance(from, to) != expected.distance(from, to))
+					wrong++;
+		check(wrong == 0, wrong + " distances differ");
+	}
+
+	private static File cacheFile(File directory)
+	{
+		for(File file : directory.listFiles())
+			if(file.getName().endsWith(".bin"))
+				return file;
+		return null;
+	}
+
+	//a new file instead of writing over the old one, which a Topology read before may still have mapped
+	private static void replace(File file, byte[] bytes) throws IOException
+	{
+		Files.delete(file.toPath());
+		Files.write(file.toPath(), bytes);
+	}
+
+	private static void check(boolean ok, String failure)
+	{
+		if(!ok)
+		{
+			System.out.println(failure);
+			failures++;
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+package benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import core.BotState;
+import core.MapSnapshot;
+import core.Topology;
+
+/**
+ * Checks the Topology against brute force on random maps: a region is an articulation point when removing it
+ * leaves more components than the map has, and every distance is the one of a breadth first search. The maps
+ * come from a sparse random graph, some with regions left alone and some disconnected, and a chain long
+ * enough that the distances no longer fit in bytes. Prints the mismatches and exits with 1 if there are any.
+ * Usage: TopologyCheck [maps] [seed]
+ */
+public class TopologyCheck {
+
+	static final int CHAIN_REGIONS = 400; //distances up to 399, more than a byte holds
+
+	public static void main(String[] args)
+	{
+		int maps = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+		Random random = new Random(seed);
+		int mismatches = 0;
+		int articulationPoints = 0;
+		for(int m=0; m<maps; m++)
+		{
+			BotState state = randomMap(random);
+			mismatches += check(state, "map " + m);
+			articulationPoints += state.getTopology().getArticulationPoints().length;
+		}
+		BotState chain = chain(CHAIN_REGIONS);
+		mismatches += check(chain, "chain");
+
+		System.out.println(maps + " random maps with " + articulationPoints + " articulation points, a chain of "
+				+ CHAIN_REGIONS + " regions with a longest distance of " + chain.getTopology().getMaxDistance());
+		System.out.println(mismatches + " mismatches");
+		if(mismatches > 0)
+			System.exit(1);
+	}
+
+	//up to 60 regions in 4 super regions, with about as many neighbor pairs as a tree of them has
+	private static BotState randomMap(Random random)
+	{
+		BotState state = new BotState();
+		int numRegions = 2 + random.nextInt(60);
+		for(int s=1; s<=4; s++)
+			state.addSuperRegion(s, random.nextInt(5));
+		for(int r=1; r<=numRegions; r++)
+			state.addRegion(r, 1 + random.nextInt(4));
+		int pairs = numRegions - 3 + random.nextInt(numRegions / 2 + 3);
+		for(int p=0; p<pairs; p++)
+		{
+			int region = 1 + random.nextInt(numRegions);
+			int neighbor = 1 + random.nextInt(numRegions);
+			if(region != neighbor)
+				state.addNeighbor(region, neighbor);
+		}
+		return state;
+	}
+
+	//regions 1 to numRegions in a line, a super region every 10
+	static BotState chain(int numRegions)
+	{
+		BotState state = new BotState();
+		for(int s=1; s<=(numRegions + 9) / 10; s++)
+			state.addSuperRegion(s, s % 5);
+		for(int r=1; r<=numRegions; r++)
+		{
+			state.addRegion(r, 1 + (r-1) / 10);
+			if(r > 1)
+				state.addNeighbor(r, r-1);
+		}
+		return state;
+	}
+
+	private static int check(BotState state, String name)
+	{
+		MapSnapshot map = state.getMapSnapshot();
+		Topology topology = state.getTopology();
+		int mismatches = 0;
+		int components = components(map, -1);
+		for(int r=0; r<map.numRegions; r++)
+		{
+			boolean articulationPoint = components(map, r) > components;
+			if(articulationPoint != topology.isArticulationPoint(r))
+			{
+				System.out.println(name + ": region " + map.regionId[r] + " is " + (articulationPoint ? "" : "not ")
+						+ "an articulation point");
+				mismatches++;
+			}
+		}
+		int[] distance = new int[map.numRegions];
+		for(int from=0; from<map.numRegions; from++)
+		{
+			search(map, from, distance);
+			for(int to=0; to<map.numRegions; to++)
+			{
+				if(topology.distance(from, to) != distance[to])
+				{
+					System.out.println(name + ": distance from " + map.regionId[from] + " to " + map.regionId[to] + " is "
+							+ topology.distance(from, to) + " instead of " + distance[to]);
+					mismatches++;
+				}
+			}
+		}
+		return mismatches;
+	}
+
+	//components of the map without the removed region, -1 to remove none
+	private static int components(MapSnapshot map, int removed)
+	{
+		boolean[] seen = new boolean[map.numRegions];
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		int components = 0;
+		for(int start=0; start<map.numRegions; start++)
+		{
+			if(start == removed || seen[start])
+				continue;
+			components++;
+			seen[start] = true;
+			queue.add(start);
+			while(!queue.isEmpty())
+			{
+				int r = queue.poll();
+				for(int e = map.neighborStart[r]; e < map.neighborStart[r+1]; e++)
+				{
+					int neighbor = map.neighbors[e];
+					if(neighbor != removed && !seen[neighbor])
+					{
+						seen[neighbor] = true;
+						queue.add(neighbor);
+					}
+				}
+			}
+		}
+		return components;
+	}
+
+	//steps from the region to every region, -1 for regions that can't be reached
+	private static void search(MapSnapshot map, int from, int[] distance)
+	{
+		Arrays.fill(distance, -1);
+		distance[from] = 0;
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		queue.add(from);
+		while(!queue.isEmpty())
+		{
+			int r = queue.poll();
+			for(int e = map.neighborStart[r]; e < map.neighborStart[r+1]; e++)
+			{
+				int neighbor = map.neighbors[e];
+				if(distance[neighbor] < 0)
+				{
+					distance[neighbor] = distance[r] + 1;
+					queue.add(neighbor);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package benchmark;
+
+import core.BotState;
+
+/**
+ * Compares time and allocation per update_map of the map copying update with the in place update of BotState.
+ * Usage: UpdateMapBenchmark [regions] [rounds]
+ */
+public class UpdateMapBenchmark {
+	
+	public static void main(String[] args)
+	{
+		int numRegions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		
+		SyntheticMap map = new SyntheticMap(numRegions, 8, 42);
+		String[][] setup = { map.superRegionsLine(), map.regionsLine(), map.neighborsLine() };
+		String[][] updates = new String[rounds][];
+		for(int round=0; round<rounds; round++)
+			updates[round] = map.updateLine(round);
+		
+		System.out.println(map.getNumRegions() + " regions, " + rounds + " rounds");
+		for(int run=0; run<2; run++) //first run is warm up
+		{
+			measure("copy", false, setup, updates, run == 1);
+			measure("in place", true, setup, updates, run == 1);
+		}
+	}
+	
+	private static void measure(String name, boolean incremental, String[][] setup, String[][] updates, boolean report)
+	{
+		BotState state = new BotState();
+		state.updateSettings("your_bot", "player1");
+		state.updateSettings("opponent_bot", "player2");
+		for(String[] line : setup)
+			state.setupMap(line);
+		state.setIncrementalMapUpdate(incremental);
+		state.updateMap(updates[0]); //the in place update copies the full map once, on the first update
+		
+		long bytes = Allocation.allocatedBytes();
+		long time = System.nanoTime();
+		for(int round=1; round<updates.length; round++)
+			state.updateMap(updates[round]);
+		time = System.nanoTime() - time;
+		bytes = Allocation.allocatedBytes() - bytes;
+		
+		int measured = updates.length - 1;
+		if(report)
+			System.out.printf("%-9s %10.1f us/round %12d bytes/round%n", name, time / 1000.0 / measured, bytes / measured);
+	}
+
+}
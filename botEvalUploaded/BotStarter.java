@@ -15,14 +15,20 @@
 //    For the full copyright and license information, please view the LICENSE
 //    file that was distributed with this source code.
 
-package botEvaluatePlaceArmies;
+package botEvalUploaded;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.PriorityQueue;
+import java.util.Random;
 
 //import view.GUI;
 
+import core.Bot;
+import core.BotParser;
+import core.BotState;
+import core.MapSnapshot;
+import core.StartPicker;
 import main.Region;
 //import main.RunGame;
 import move.AttackTransferMove;
@@ -30,49 +36,26 @@ import move.PlaceArmiesMove;
 
 public class BotStarter implements Bot 
 {
+	private Random random = new Random();
+	
+	//makes the random choices of the bot repeatable, for games of the LocalEngine
+	public void setRandomSeed(long seed)
+	{
+		random = new Random(seed);
+	}
+	
 	private int totalEvaluatedArmyNeed = 0;
 	private int round = 0;
 	
 	/**
 	 * A method used at the start of the game to decide which player start with what Regions. 6 Regions are required to be returned.
-	 * This example randomly picks 6 regions from the pickable starting Regions given by the engine.
+	 * The regions are ranked by the StartPicker, which works on any map.
 	 * @return : a list of m (m=6) Regions starting with the most preferred Region and ending with the least preferred Region to start with 
 	 */
 	@Override
 	public ArrayList<Region> getPreferredStartingRegions(BotState state, Long timeOut)
 	{
-	
-		ArrayList<Region> preferredStartingRegions = new ArrayList<Region>();
-	
-		// // get the list of pickable regions
-		ArrayList<Region> pickable = state.getPickableStartingRegions(); 
-		// // sort regions numbers by ID
-		ArrayList<ArrayList<Region>> byID = new ArrayList<ArrayList<Region>>();
-		
-		for(int i = 0; i < 6; i++){
-			// 2 from each super region
-			byID.add(new ArrayList<Region>());
-		}
-
-		for(int i = 0; i < pickable.size(); i++){
-			byID.get(pickable.get(i).getSuperRegion().getId()-1).add(pickable.get(i));
-		}
-
-		// // our order would be: south america, north america, africa, australia, europe, asia
-		// // 2-> 1 -> 4 > 6 -> 3 -> 5
-		for(int i = 0; i < 2; i++){
-			preferredStartingRegions.add(byID.get(1).get(i)); 
-	    }
-
-	    for(int i = 0; i < 2; i++){
-	    	preferredStartingRegions.add(byID.get(0).get(i)); 
-	    }
-
-	    for(int i = 0; i < 2; i++){
-	    	preferredStartingRegions.add(byID.get(3).get(i)); 
-	    }
-		
-		return preferredStartingRegions;
+		return new StartPicker(state, timeOut).getPreferredStartingRegions();
 	}
 	
 
@@ -99,7 +82,7 @@ public class BotStarter implements Bot
 		//careful! System.out.println("\n\ngoing to get the regions needing armies!");
 		//System.out.println("\n\ngoing to get the regions needing armies!");
 		
-		PriorityQueue<RegionWrapper> gettingArmies = getRegionsNeedingArmies(myName, visibleRegions);
+		PriorityQueue<RegionWrapper> gettingArmies = getRegionsNeedingArmies(state, visibleRegions);
 		PriorityQueue<RegionWrapper> givenArmies = new PriorityQueue<RegionWrapper>();
  
 		//careful! System.out.println("number needing armies: " + gettingArmies.size());
@@ -163,14 +146,14 @@ public class BotStarter implements Bot
 	}
 	
 	 
-	private boolean isBorder(Region region, String myName){
+	private boolean isBorder(Region region, BotState state){
 
 			LinkedList<Region> neighbors = region.getNeighbors();
 
 			/*int numNeighborsChecked = 0;
 			while(numNeighborsChecked < neighbors.size()){
 				
-				if(!neighbors.get(numNeighborsChecked).ownedByPlayer(myName)){
+				if(!state.isMine(neighbors.get(numNeighborsChecked))){
 
 					// add it to list then exit while loop
 					return true;
@@ -180,7 +163,7 @@ public class BotStarter implements Bot
 			
 			for(Region neighbor : neighbors){ 
 				
-				if(!neighbor.ownedByPlayer(myName)){
+				if(!state.isMine(neighbor)){
 
 					// add it to list then exit while loop
 					return true;
@@ -189,16 +172,16 @@ public class BotStarter implements Bot
 
 			return false;
 		
-			//return getOpponentsSurrounding(region, myName).size() > 0;
+			//return getOpponentsSurrounding(region, state).size() > 0;
 	}
 	
 	/**
 	 * Returns a list of all the countries surrounding region that are not controlled by us. 
 	 * @param region the region to retrieve surrounding regions from
-	 * @param myName our player name
+	 * @param state the state with our player name
 	 * @return the list of opponents/neutral countries surrounding region. If region is non-border, it will be empty.
 	 */
-	private LinkedList<Region> getOpponentsSurrounding(Region region, String myName){
+	private LinkedList<Region> getOpponentsSurrounding(Region region, BotState state){
 
 		LinkedList<Region> neighbors = region.getNeighbors();
 		LinkedList<Region> surrounding = new LinkedList<Region>(); 
@@ -206,7 +189,7 @@ public class BotStarter implements Bot
 		/*int numNeighborsChecked = 0;
 		while(numNeighborsChecked < neighbors.size()){
 			
-			if(!neighbors.get(numNeighborsChecked).ownedByPlayer(myName)){
+			if(!state.isMine(neighbors.get(numNeighborsChecked))){
 				surrounding.add(neighbors.get(numNeighborsChecked));
 			}
 			numNeighborsChecked++;
@@ -214,7 +197,7 @@ public class BotStarter implements Bot
 		
 		for(Region neighbor : neighbors){
 			
-			if(!neighbor.ownedByPlayer(myName)){
+			if(!state.isMine(neighbor)){
 				surrounding.add(neighbor); 
 			} 
 		}
@@ -225,11 +208,11 @@ public class BotStarter implements Bot
 	/**
 	 * Calculate the amount of need region has for additional armies. 
 	 * @param region the region to calculate need for. 
-	 * @param myName our player name. 
+	 * @param state the state with our player name.
 	 * @return the need of region. 
 	 */
-	private int evaluateNeedArmies(Region region, String myName){ 
-		LinkedList<Region> surrounding = getOpponentsSurrounding(region, myName);
+	private int evaluateNeedArmies(Region region, BotState state){ 
+		LinkedList<Region> surrounding = getOpponentsSurrounding(region, state);
 		
 		// region is not a border state
 		if (surrounding.size() == 0){
@@ -240,7 +223,7 @@ public class BotStarter implements Bot
 		int numNeutral = 0;
 		int numOpponent = 0;
 		for (Region other : surrounding){ 
-			if (!other.getPlayerName().equals("neutral")){
+			if (state.getOwner(other) != MapSnapshot.NEUTRAL){
 				numOpponent++;
 				need += other.getArmies();
 			} else {
@@ -257,18 +240,18 @@ public class BotStarter implements Bot
 	/**
 	 * Starting from all visible regions, return a queue of our regions that have a need for armies. 
 	 * Queue will not include interior (non-border) regions. 
-	 * @param myName our player name
+	 * @param state the state with our player name
 	 * @param visible the visible regions
 	 * @return the queue of regions in need of armies  
 	 */
-	private PriorityQueue<RegionWrapper> getRegionsNeedingArmies(String myName, LinkedList<Region> visible){
+	private PriorityQueue<RegionWrapper> getRegionsNeedingArmies(BotState state, LinkedList<Region> visible){
 		PriorityQueue<RegionWrapper> needArmies = new PriorityQueue<RegionWrapper>();
 		//PriorityQueue<RegionWrapper> doNotNeedArmies = new PriorityQueue<RegionWrapper>();
 		totalEvaluatedArmyNeed = 0; 
 		
 		for(Region current : visible){
-			if (current.getPlayerName().equals(myName)){
-				int need = evaluateNeedArmies(current, myName);
+			if (state.isMine(current)){
+				int need = evaluateNeedArmies(current, state);
 				totalEvaluatedArmyNeed += need;
 				RegionWrapper wrapper = new RegionWrapper(current, need);
 				if (need > 0){
@@ -303,28 +286,28 @@ public class BotStarter implements Bot
 		
 		for(Region fromRegion : state.getVisibleMap().getRegions())
 		{
-			if(fromRegion.ownedByPlayer(myName)) //do an attack
+			if(state.isMine(fromRegion)) //do an attack
 			{
 				ArrayList<Region> possibleToRegions = new ArrayList<Region>();
 				possibleToRegions.addAll(fromRegion.getNeighbors());
 		
 				while(!possibleToRegions.isEmpty())
 				{
-					double rand = Math.random();
+					double rand = random.nextDouble();
 					int r = (int) (rand*possibleToRegions.size());
 					Region toRegion = possibleToRegions.get(r);
 
 					
-					if(!toRegion.getPlayerName().equals(myName) && fromRegion.getArmies() > 3) //do an attack
+					if(!state.isMine(toRegion) && fromRegion.getArmies() > 3) //do an attack
 					{
-						if(toRegion.getPlayerName().equals("neutral")){
+						if(state.getOwner(toRegion) == MapSnapshot.NEUTRAL){
 							attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, 4));
 						}else{
 
-							LinkedList<Region> surroundings = getOpponentsSurrounding(fromRegion, myName);
+							LinkedList<Region> surroundings = getOpponentsSurrounding(fromRegion, state);
 							int opponentsSize = 0;
 							for(Region neighbor : surroundings){
-								if(!neighbor.getPlayerName().equals("neutral")){
+								if(state.getOwner(neighbor) != MapSnapshot.NEUTRAL){
 									opponentsSize++;
 								}
 							}
@@ -336,9 +319,9 @@ public class BotStarter implements Bot
 				      }
 						break;
 					}
-					else if(toRegion.getPlayerName().equals(myName) && isBorder(toRegion, myName) && fromRegion.getArmies() > 1) //do a transfer
+					else if(state.isMine(toRegion) && isBorder(toRegion, state) && fromRegion.getArmies() > 1) //do a transfer
 					{
-						if(!isBorder(fromRegion, myName)){
+						if(!isBorder(fromRegion, state)){
 						attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, fromRegion.getArmies()-1));
 					}
 						break;
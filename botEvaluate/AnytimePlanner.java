@@ -0,0 +1,410 @@
+package botEvaluate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import core.BattleOdds;
+import core.BotState;
+import core.MapSnapshot;
+import core.Deadline;
+import core.RoundAnalysis;
+import main.Region;
+import main.SuperRegion;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Keeps improving the moves found by the greedy evaluation of BotStarter until a deadline, and returns the
+ * best plan found so far. Plans are scored by their expected result after this round: the value of the regions
+ * our attacks are expected to capture, minus the value of our border regions left too weak against the
+ * opponent armies next to them.
+ * The search is a hill climb over small changes of the plan. When it gets stuck the best plan is perturbed,
+ * and the search stops early when that stops helping.
+ */
+public class AnytimePlanner {
+
+	static final double ARMY_VALUE = 0.1; //value of one army killed or lost
+	static final double OPPONENT_REGION_BONUS = 1; //taking a region from the opponent instead of a neutral
+	static final double COMPLETE_SUPER_REGION_BONUS = 2; //times the reward, for completing or keeping a super region
+	static final double LOSS_WEIGHT = 1; //weight of our regions that could be lost against the captured ones
+
+	static final int STALE_STEPS = 500; //changes without improvement before the best plan is perturbed
+	static final int MAX_STALE_KICKS = 20; //perturbations without improvement before the search stops
+
+	private final String myName;
+	private final BotState state;
+	private final Random random;
+	private final double captureProbability; //chance to capture a target that attacks are sized for
+
+	private final ArrayList<Region> borders = new ArrayList<Region>(); //our regions next to a region we don't own
+	private final HashMap<Integer, Integer> borderIndex = new HashMap<Integer, Integer>(); //region id -> index in borders
+	private final Region[][] hostile; //regions we don't own next to each border region
+	private final int[] armies; //armies on each border region, including the ones placed this round
+	private final int[] threat; //opponent armies that could attack each border region
+	private final RoundAnalysis analysis;
+
+	private final int[] forceOn; //armies sent to each region id by the plan being scored
+	private final Region[] targets; //regions in forceOn that are not 0
+	private int numTargets;
+
+	/**
+	 * @param placedArmies armies we placed this round per region id, which are not yet in the state
+	 * @param random source of the random changes, the bot's own so games can be repeated
+	 * @param captureProbability chance to capture a target that attacks are sized for
+	 */
+	public AnytimePlanner(BotState state, HashMap<Integer, Integer> placedArmies, Random random, double captureProbability)
+	{
+		this.state = state;
+		this.random = random;
+		this.captureProbability = captureProbability;
+		myName = state.getMyPlayerName();
+		analysis = state.getRoundAnalysis();
+
+		int maxRegionId = 0;
+		for(Region region : state.getFullMap().getRegions())
+			maxRegionId = Math.max(maxRegionId, region.getId());
+		forceOn = new int[maxRegionId+1];
+
+		int numHostile = 0;
+		for(Region region : analysis.getBorderRegions())
+		{
+			borderIndex.put(region.getId(), borders.size());
+			borders.add(region);
+		}
+
+		int n = borders.size();
+		hostile = new Region[n][];
+		armies = new int[n];
+		threat = new int[n];
+		for(int i=0; i<n; i++)
+		{
+			Region region = borders.get(i);
+			ArrayList<Region> notOwned = analysis.getHostileNeighbors(region);
+			for(Region neighbor : notOwned)
+				if(state.getOwner(neighbor) == MapSnapshot.OPPONENT)
+					threat[i] += Math.max(0, neighbor.getArmies() - 1);
+			hostile[i] = notOwned.toArray(new Region[notOwned.size()]);
+			numHostile += hostile[i].length;
+
+			Integer placed = placedArmies.get(region.getId());
+			armies[i] = region.getArmies() + (placed == null ? 0 : placed);
+		}
+		targets = new Region[numHostile];
+	}
+
+	/**
+	 * Improves the placement of the armies on the border regions, each placement being scored with the attacks
+	 * it allows. Moves on other regions are kept as they are.
+	 */
+	public ArrayList<PlaceArmiesMove> improvePlacement(ArrayList<PlaceArmiesMove> greedy, int numArmies, Deadline deadline)
+	{
+		int n = borders.size();
+		if(n == 0 || deadline.passed())
+			return greedy;
+
+		ArrayList<PlaceArmiesMove> kept = new ArrayList<PlaceArmiesMove>();
+		int[] placed = new int[n];
+		int pool = numArmies;
+		for(PlaceArmiesMove move : greedy)
+		{
+			int amount = Math.min(move.getArmies(), pool);
+			if(amount <= 0)
+				continue;
+			Integer i = borderIndex.get(move.getRegion().getId());
+			if(i == null)
+				kept.add(new PlaceArmiesMove(myName, move.getRegion(), amount));
+			else
+				placed[i] += amount;
+			pool -= amount;
+		}
+
+		if(pool == 0 && (n == 1 || sumOf(placed) == 0))
+			return greedy; //nothing to move
+
+		int[] target = new int[n];
+		int[] sent = new int[n];
+		int[] best = placed.clone();
+		int bestPool = pool;
+		deriveAttacks(placed, target, sent);
+		double bestScore = score(placed, target, sent);
+
+		int stale = 0;
+		int staleKicks = 0;
+		while(!deadline.passed() && staleKicks < MAX_STALE_KICKS)
+		{
+			int from = -1;
+			int amount;
+			int to = random.nextInt(n);
+			if(pool > 0 && (random.nextBoolean() || sumOf(placed) == 0))
+			{
+				amount = 1 + random.nextInt(pool);
+				pool -= amount;
+			}
+			else
+			{
+				from = random.nextInt(n);
+				while(placed[from] == 0)
+					from = (from + 1) % n;
+				if(from == to)
+					to = (to + 1) % n;
+				amount = 1 + random.nextInt(Math.min(placed[from], 3));
+				placed[from] -= amount;
+			}
+			placed[to] += amount;
+
+			deriveAttacks(placed, target, sent);
+			double score = score(placed, target, sent);
+			if(score > bestScore + 1e-9)
+			{
+				bestScore = score;
+				System.arraycopy(placed, 0, best, 0, n);
+				bestPool = pool;
+				stale = 0;
+				staleKicks = 0;
+			}
+			else if(++stale >= STALE_STEPS)
+			{
+				//start again from a perturbed best plan
+				stale = 0;
+				staleKicks++;
+				System.arraycopy(best, 0, placed, 0, n);
+				pool = bestPool;
+				for(int k=0; k<3; k++)
+				{
+					int i = random.nextInt(n);
+					int j = random.nextInt(n);
+					int moved = Math.min(placed[i], 1 + random.nextInt(3));
+					placed[i] -= moved;
+					placed[j] += moved;
+				}
+			}
+			else
+			{
+				//undo
+				placed[to] -= amount;
+				if(from >= 0)
+					placed[from] += amount;
+				else
+					pool += amount;
+			}
+		}
+
+		ArrayList<PlaceArmiesMove> moves = kept;
+		for(int i=0; i<n; i++)
+			if(best[i] > 0)
+				moves.add(new PlaceArmiesMove(myName, borders.get(i), best[i]));
+		return moves;
+	}
+
+	/**
+	 * Improves the attacks from the border regions: their targets and the number of armies sent.
+	 * Other moves, like transfers from interior regions, are kept as they are.
+	 */
+	public ArrayList<AttackTransferMove> improveAttacks(ArrayList<AttackTransferMove> greedy, Deadline deadline)
+	{
+		int n = borders.size();
+		if(n == 0 || deadline.passed())
+			return greedy;
+
+		ArrayList<AttackTransferMove> kept = new ArrayList<AttackTransferMove>();
+		int[] target = new int[n];
+		int[] sent = new int[n];
+		Arrays.fill(target, -1);
+		for(AttackTransferMove move : greedy)
+		{
+			Integer i = borderIndex.get(move.getFromRegion().getId());
+			int k = i == null || target[i] >= 0 ? -1 : indexOf(hostile[i], move.getToRegion());
+			if(k < 0)
+				kept.add(move);
+			else
+			{
+				target[i] = k;
+				sent[i] = move.getArmies();
+			}
+		}
+
+		int[] bestTarget = target.clone();
+		int[] bestSent = sent.clone();
+		double bestScore = score(null, target, sent);
+
+		int stale = 0;
+		int staleKicks = 0;
+		while(!deadline.passed() && staleKicks < MAX_STALE_KICKS)
+		{
+			int i = random.nextInt(n);
+			int oldTarget = target[i];
+			int oldSent = sent[i];
+			changeAttack(i, target, sent);
+
+			double score = score(null, target, sent);
+			if(score > bestScore + 1e-9)
+			{
+				bestScore = score;
+				System.arraycopy(target, 0, bestTarget, 0, n);
+				System.arraycopy(sent, 0, bestSent, 0, n);
+				stale = 0;
+				staleKicks = 0;
+			}
+			else if(++stale >= STALE_STEPS)
+			{
+				//start again from a perturbed best plan
+				stale = 0;
+				staleKicks++;
+				System.arraycopy(bestTarget, 0, target, 0, n);
+				System.arraycopy(bestSent, 0, sent, 0, n);
+				for(int k=0; k<3; k++)
+					changeAttack(random.nextInt(n), target, sent);
+			}
+			else
+			{
+				target[i] = oldTarget;
+				sent[i] = oldSent;
+			}
+		}
+
+		ArrayList<AttackTransferMove> moves = kept;
+		for(int i=0; i<n; i++)
+		{
+			int force = Math.min(bestSent[i], armies[i] - 1);
+			if(bestTarget[i] >= 0 && force > 0)
+				moves.add(new AttackTransferMove(myName, borders.get(i), hostile[i][bestTarget[i]], force));
+		}
+		return moves;
+	}
+
+	//a random change of the attack from border region i
+	private void changeAttack(int i, int[] target, int[] sent)
+	{
+		int available = armies[i] - 1;
+		double r = random.nextDouble();
+		if(available <= 0 || r < 0.15)
+			target[i] = -1;
+		else if(r < 0.5 || target[i] < 0)
+		{
+			target[i] = random.nextInt(hostile[i].length);
+			sent[i] = Math.min(available, captureForce(hostile[i][target[i]].getArmies()));
+		}
+		else if(r < 0.85)
+			sent[i] = Math.max(1, Math.min(available, sent[i] + random.nextInt(5) - 2));
+		else
+			sent[i] = available;
+	}
+
+	//for each border region the single attack that adds most to its own score, or none
+	private void deriveAttacks(int[] placed, int[] target, int[] sent)
+	{
+		for(int i=0; i<borders.size(); i++)
+		{
+			int available = armies[i] + placed[i] - 1;
+			double bestGain = 0;
+			target[i] = -1;
+			for(int k=0; k<hostile[i].length; k++)
+			{
+				int force = captureForce(hostile[i][k].getArmies());
+				if(force > available)
+					continue;
+				double gain = attackValue(hostile[i][k], force) - exposure(i, available + 1 - force) + exposure(i, available + 1);
+				if(gain > bestGain)
+				{
+					bestGain = gain;
+					target[i] = k;
+					sent[i] = force;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Expected result of a plan.
+	 * @param placed armies placed per border region, or null
+	 * @param target index in hostile of the region attacked from each border region, or -1
+	 * @param sent armies sent by each attack
+	 */
+	double score(int[] placed, int[] target, int[] sent)
+	{
+		double score = 0;
+		numTargets = 0;
+		for(int i=0; i<borders.size(); i++)
+		{
+			int remaining = armies[i] + (placed == null ? 0 : placed[i]);
+			if(target[i] >= 0)
+			{
+				int force = Math.min(sent[i], remaining - 1);
+				if(force > 0)
+				{
+					Region to = hostile[i][target[i]];
+					if(forceOn[to.getId()] == 0)
+						targets[numTargets++] = to;
+					forceOn[to.getId()] += force;
+					remaining -= force;
+				}
+			}
+			score -= exposure(i, remaining);
+		}
+		for(int t=0; t<numTargets; t++)
+		{
+			Region to = targets[t];
+			score += attackValue(to, forceOn[to.getId()]);
+			forceOn[to.getId()] = 0;
+		}
+		return score;
+	}
+
+	//fewest attackers that capture a region with the given number of defenders with the capture probability
+	private int captureForce(int defenders)
+	{
+		return BattleOdds.minimalAttackers(defenders, captureProbability);
+	}
+
+	private double attackValue(Region to, int force)
+	{
+		int defenders = to.getArmies();
+		double killed = Math.min(defenders, force * BattleOdds.ATTACKER_KILL_CHANCE);
+		double lost = Math.min(force, defenders * BattleOdds.DEFENDER_KILL_CHANCE);
+		double value = (killed - lost) * ARMY_VALUE;
+		double capture = regionValue(to.getSuperRegion(), 1) + (state.getOwner(to) == MapSnapshot.NEUTRAL ? 0 : OPPONENT_REGION_BONUS);
+		return value + capture * BattleOdds.successProbability(force, defenders);
+	}
+
+	//expected loss on border region i when the given armies stay on it
+	private double exposure(int i, int remaining)
+	{
+		if(threat[i] == 0)
+			return 0;
+		double value = regionValue(borders.get(i).getSuperRegion(), 0) * LOSS_WEIGHT;
+		double ratio = threat[i] * BattleOdds.ATTACKER_KILL_CHANCE / Math.max(remaining, 1);
+		if(ratio >= 1)
+			return value;
+		return value * ratio * ratio * 0.5;
+	}
+
+	//value of a region of the super region, when we would own 'extra' more regions of it than now
+	private double regionValue(SuperRegion superRegion, int extra)
+	{
+		int size = superRegion.getSubRegions().size();
+		int owned = analysis.getOccupied(superRegion) + extra;
+		double value = 1 + (double) superRegion.getArmiesReward() * owned / size;
+		if(owned >= size)
+			value += superRegion.getArmiesReward() * COMPLETE_SUPER_REGION_BONUS;
+		return value;
+	}
+
+	private static int sumOf(int[] values)
+	{
+		int sum = 0;
+		for(int value : values)
+			sum += value;
+		return sum;
+	}
+
+	private static int indexOf(Region[] regions, Region region)
+	{
+		for(int k=0; k<regions.length; k++)
+			if(regions[k].getId() == region.getId())
+				return k;
+		return -1;
+	}
+
+}
@@ -15,16 +15,26 @@
 //    For the full copyright and license information, please view the LICENSE
 //    file that was distributed with this source code.
 
-package botEvaluatePlaceArmies;
+package botEvaluate;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.PriorityQueue;
 import java.util.HashMap;
-import java.util.NoSuchElementException;
+import java.util.Random;
 
 //import view.GUI;
 
+import core.ArmyAllocator;
+import core.ArmyUtility;
+import core.BattleOdds;
+import core.Bot;
+import core.BotParser;
+import core.BotState;
+import core.MapSnapshot;
+import core.StartPicker;
+import core.Deadline;
+import core.RoundAnalysis;
 import main.Region;
 import main.SuperRegion;
 //import main.RunGame;
@@ -33,230 +43,144 @@ import move.PlaceArmiesMove;
 
 public class BotStarter implements Bot 
 {
-	private int totalEvaluatedArmyNeed = 0;
-	private int round = 0;
+	private final Weights weights; //constants of the greedy evaluation
+	private Random random = new Random();
+	
+	//with the weights of -DevaluateWeights=file, or the defaults
+	public BotStarter()
+	{
+		this(Weights.fromProperty());
+	}
+	
+	public BotStarter(Weights weights)
+	{
+		this.weights = weights;
+	}
+	
+	//makes the random choices of the bot repeatable, for games of the LocalEngine
+	public void setRandomSeed(long seed)
+	{
+		random = new Random(seed);
+	}
+	
+	private final ArmyAllocator allocator = new ArmyAllocator();
+	
+	// armies placed this round per region id, the state only has them after the next map update
+	private HashMap<Integer, Integer> placedArmies = new HashMap<Integer, Integer>();
+	private int placedRound = -1;
 	
 	/**
 	 * A method used at the start of the game to decide which player start with what Regions. 6 Regions are required to be returned.
-	 * This example randomly picks 6 regions from the pickable starting Regions given by the engine.
+	 * The regions are ranked by the StartPicker, which works on any map.
 	 * @return : a list of m (m=6) Regions starting with the most preferred Region and ending with the least preferred Region to start with 
 	 */
 	@Override
 	public ArrayList<Region> getPreferredStartingRegions(BotState state, Long timeOut)
 	{
-	
-		ArrayList<Region> preferredStartingRegions = new ArrayList<Region>();
-	
-		// // get the list of pickable regions
-		ArrayList<Region> pickable = state.getPickableStartingRegions(); 
-		// // sort regions numbers by ID
-		ArrayList<ArrayList<Region>> byID = new ArrayList<ArrayList<Region>>();
-		
-		for(int i = 0; i < 6; i++){
-			// 2 from each super region
-			byID.add(new ArrayList<Region>());
-		}
-
-		for(int i = 0; i < pickable.size(); i++){
-			byID.get(pickable.get(i).getSuperRegion().getId()-1).add(pickable.get(i));
-		}
-
-		// // our order would be: south america, north america, africa, australia, europe, asia
-		// // 2-> 1 -> 4 > 6 -> 3 -> 5
-		for(int i = 0; i < 2; i++){
-			preferredStartingRegions.add(byID.get(1).get(i)); 
-	    }
-
-	    for(int i = 0; i < 2; i++){
-	    	preferredStartingRegions.add(byID.get(0).get(i)); 
-	    }
-
-	    for(int i = 0; i < 2; i++){
-	    	preferredStartingRegions.add(byID.get(3).get(i)); 
-	    }
-		
-		return preferredStartingRegions;
+		return new StartPicker(state, timeOut).getPreferredStartingRegions();
 	}
 	
 
 	
 	/**
-	 * This method is called for at first part of each round. This example puts two armies on random regions
-	 * until he has no more armies left to place.
+	 * This method is called for at first part of each round. The placement of the greedy evaluation is
+	 * improved by the AnytimePlanner until shortly before timeOut.
 	 * @return The list of PlaceArmiesMoves for one round
 	 */
 	@Override
 	public ArrayList<PlaceArmiesMove> getPlaceArmiesMoves(BotState state, Long timeOut) 
 	{
-		round++;
-		ArrayList<PlaceArmiesMove> placeArmiesMoves = new ArrayList<PlaceArmiesMove>();
-		String myName = state.getMyPlayerName();
-
-		// number of armies left
-		int numArmies = state.getStartingArmies();
-		int originalNumArmies = state.getStartingArmies();
-
-		// find all regions held by player that is bordering other regions
-		LinkedList<Region> visibleRegions = state.getVisibleMap().getRegions(); 
-
-		//careful! System.out.println("\n\ngoing to get the regions needing armies!");
-		//System.out.println("\n\ngoing to get the regions needing armies!");
-		
-		PriorityQueue<RegionWrapper> gettingArmies = getRegionsNeedingArmies(myName, visibleRegions);
-		PriorityQueue<RegionWrapper> givenArmies = new PriorityQueue<RegionWrapper>();
- 
-		//careful! System.out.println("number needing armies: " + gettingArmies.size());
-		//System.out.println("number needing armies: " + gettingArmies.size()); 
-		
-		// give armies based on need 
-		boolean giveByNeed = true;
+		Deadline deadline = new Deadline(timeOut);
+		ArrayList<PlaceArmiesMove> greedy = getGreedyPlaceArmiesMoves(state);
 		
-		// need of 2
-		// and 4 to place
-		// want 2 per need: 4/2
-		// so numArmies/totalNeed
+		placedArmies.clear();
+		ArrayList<PlaceArmiesMove> placeArmiesMoves = new AnytimePlanner(state, placedArmies, random, weights.get(Weights.CAPTURE_PROBABILITY)).improvePlacement(greedy, state.getStartingArmies(), deadline);
 		
-		double armiesPerNeed = (numArmies+0.0)/totalEvaluatedArmyNeed; 
-		int armiesPerRegion = (int)Math.ceil((double)numArmies/gettingArmies.size());
-		
-		
-		
-		if (armiesPerNeed <= 0.0){
-			giveByNeed = false;
-		}
-		
-		//GUI.makeAlert("totalEvaluatedArmyNeed: " + totalEvaluatedArmyNeed + "\narmiesPerNeed: " + armiesPerNeed + "\narmiesPerRegion: " + armiesPerRegion + "\nnumArmies: " + numArmies + "\ngiveByNeed: " + giveByNeed + "\nnumber regions to give to: " + gettingArmies.size());   
-		String armiesReport = ""; 
-		String armiesTotal = ""; 
-		int i = 0;
-		// give armies to each region in need until we run out. 
-		while(numArmies > 0 && i < 50){
-			
-			if (gettingArmies.size() == 0 && givenArmies.size() > 0){
-				PriorityQueue<RegionWrapper> nowEmpty = gettingArmies;
-				gettingArmies = givenArmies;
-				givenArmies = nowEmpty;
-			}
-			
-			RegionWrapper current = gettingArmies.poll(); // poll is the same as pop
-			givenArmies.add(current);
-			
-			int armiesAdding = 0;
-			if (giveByNeed){
-				armiesAdding = (int) Math.round(armiesPerNeed*current.need); 
-				if (armiesAdding > numArmies){
-					armiesAdding = numArmies;
-				}
-			} else {
-				armiesAdding = armiesPerRegion;
-			}
-			armiesReport += armiesAdding + ",";
-			armiesTotal += (armiesAdding + current.region.getArmies()) + ",";
-			placeArmiesMoves.add(new PlaceArmiesMove(myName, current.region, armiesAdding));  
-			numArmies -= armiesAdding; 
-			i++;
+		for(PlaceArmiesMove move : placeArmiesMoves)
+		{
+			Integer placed = placedArmies.get(move.getRegion().getId());
+			placedArmies.put(move.getRegion().getId(), (placed == null ? 0 : placed) + move.getArmies());
 		}
-
-		// GUI.makeAlert("round " + round + "\ntotalEvaluatedArmyNeed: " + totalEvaluatedArmyNeed + "\narmiesPerNeed: " + armiesPerNeed + "\narmiesPerRegion: " + armiesPerRegion + "\noriginalNumArmies: " + originalNumArmies + "\ngiveByNeed: " + giveByNeed + "\nnumber regions to give to: " + gettingArmies.size() + "\n\n" + armiesReport + "\n" + armiesTotal);
-		// RunGame.addToLog("round " + round + "\ntotalEvaluatedArmyNeed: " + totalEvaluatedArmyNeed + "\narmiesPerNeed: " + armiesPerNeed + "\narmiesPerRegion: " + armiesPerRegion + "\noriginalNumArmies: " + originalNumArmies + "\ngiveByNeed: " + giveByNeed + "\nnumber regions to give to: " + gettingArmies.size() + "\n\n" + armiesReport + "\n" + armiesTotal);
-		
-		// System.out.println(""); 
-		
+		placedRound = state.getRoundNumber();
 		return placeArmiesMoves;
 	}
 	
-	 
-	private boolean isBorder(Region region, String myName){
-
-			LinkedList<Region> neighbors = region.getNeighbors();
-
-			/*int numNeighborsChecked = 0;
-			while(numNeighborsChecked < neighbors.size()){
-				
-				if(!neighbors.get(numNeighborsChecked).ownedByPlayer(myName)){
-
-					// add it to list then exit while loop
-					return true;
-				}
-				numNeighborsChecked++;
-			}*/
-			
-			for(Region neighbor : neighbors){ 
-				
-				if(!neighbor.ownedByPlayer(myName)){
-
-					// add it to list then exit while loop
-					return true;
-				} 
-			}
-
-			return false;
-		
-			//return getOpponentsSurrounding(region, myName).size() > 0;
-	}
-	
 	/**
-	 * Returns a list of all the countries surrounding region that are not controlled by us. 
-	 * @param region the region to retrieve surrounding regions from
-	 * @param myName our player name
-	 * @return the list of opponents/neutral countries surrounding region. If region is non-border, it will be empty.
+	 * Gives armies to the border regions in proportion to their need: each army goes to the region whose
+	 * need per army it already got is highest (the D'Hondt method), so all armies are placed.
+	 * Without a region in need the border regions share them equally.
 	 */
-	private LinkedList<Region> getOpponentsSurrounding(Region region, String myName){
-
-		LinkedList<Region> neighbors = region.getNeighbors();
-		LinkedList<Region> surrounding = new LinkedList<Region>(); 
+	private ArrayList<PlaceArmiesMove> getGreedyPlaceArmiesMoves(BotState state) 
+	{
+		ArrayList<PlaceArmiesMove> placeArmiesMoves = new ArrayList<PlaceArmiesMove>();
+		String myName = state.getMyPlayerName();
+		RoundAnalysis analysis = state.getRoundAnalysis();
 
-		/*int numNeighborsChecked = 0;
-		while(numNeighborsChecked < neighbors.size()){
-			
-			if(!neighbors.get(numNeighborsChecked).ownedByPlayer(myName)){
-				surrounding.add(neighbors.get(numNeighborsChecked));
-			}
-			numNeighborsChecked++;
-		}*/
+		// number of armies left
+		int numArmies = state.getStartingArmies();
 		
-		for(Region neighbor : neighbors){
-			
-			if(!neighbor.ownedByPlayer(myName)){
-				surrounding.add(neighbor); 
-			} 
+		PriorityQueue<RegionWrapper> gettingArmies = getRegionsNeedingArmies(state, analysis);
+		ArrayList<Region> regions = new ArrayList<Region>();
+		final ArrayList<Integer> needs = new ArrayList<Integer>();
+		while(!gettingArmies.isEmpty())
+		{
+			RegionWrapper current = gettingArmies.poll(); // neediest first
+			regions.add(current.region);
+			needs.add(current.need);
 		}
-
-		return surrounding;
+		if(regions.isEmpty())
+		{
+			regions.addAll(analysis.getBorderRegions());
+			if(regions.isEmpty() && !analysis.getOwnedRegions().isEmpty())
+				regions.add(analysis.getOwnedRegions().get(0));
+			for(int i=0; i<regions.size(); i++)
+				needs.add(1);
+		}
+		
+		int[] placed = allocator.allocate(regions.size(), numArmies, new ArmyUtility() {
+			@Override
+			public double marginal(int item, int placed) {
+				return needs.get(item) / (placed + 1.0);
+			}
+		});
+		for(int i=0; i<regions.size(); i++)
+			if(placed[i] > 0)
+				placeArmiesMoves.add(new PlaceArmiesMove(myName, regions.get(i), placed[i]));
+		
+		return placeArmiesMoves;
 	}
 
 	/**
 	 * Calculate the amount of need region has for additional armies. 
 	 * @param region the region to calculate need for. 
-	 * @param myName our player name. 
+	 * @param state the state with our player name.
+	 * @param analysis borders and continent occupation of this round. 
 	 * @return the need of region. 
 	 */
-	private int evaluateNeedArmies(Region region, String myName, LinkedList<Region> visibleRegions){ 
+	private int evaluateNeedArmies(Region region, BotState state, RoundAnalysis analysis){ 
 		
-		LinkedList<Region> surrounding = getOpponentsSurrounding(region, myName);
-
-		// also consider which continent it is in
-		int[] occupied =  continentOccupied(visibleRegions, myName);
+		ArrayList<Region> surrounding = analysis.getHostileNeighbors(region);
 		
 		// region is not a border state
 		if (surrounding.size() == 0){
 			return 0;
 		}
 		
-		int need = (int)(10/occupied[region.getSuperRegion().getId()-1]);
+		// also consider which continent it is in
+		double need = weights.get(Weights.OCCUPATION_NEED)/analysis.getOccupied(region.getSuperRegion());
 
 		int numNeutral = 0;
 		int numOpponent = 0;
 		
 		for (Region other : surrounding){ 
 
-			if(occupied[other.getSuperRegion().getId()-1] == (other.getSuperRegion().getSubRegions().size()+1) ){
-				need += other.getSuperRegion().getArmiesReward()*2;
+			if(analysis.getOccupied(other.getSuperRegion()) == (other.getSuperRegion().getSubRegions().size()+1) ){
+				need += other.getSuperRegion().getArmiesReward()*weights.get(Weights.COMPLETION_NEED);
 			}
 
-			if (!other.getPlayerName().equals("neutral")){
+			if (state.getOwner(other) != MapSnapshot.NEUTRAL){
 				numOpponent++;
-				need += other.getArmies();
+				need += other.getArmies()*weights.get(Weights.OPPONENT_ARMIES_NEED);
 			} else {
 				numNeutral++;
 			}
@@ -264,39 +188,21 @@ public class BotStarter implements Bot
 		
 		//need += numNeutral/4;
 		//GUI.makeAlert("need of armies for " + region.getId() + ": " + need);
-		return need; 
-	}
-
-    // find the number of occupied countries in each super region
-	private int[] continentOccupied(LinkedList<Region> visibleRegions, String myName){
-
-		int[] occupied = new int[6];
-
-		for(Region region : visibleRegions){
-
-			// if it is owned by us
-			if(region.getPlayerName().equals(myName)){
-				occupied[region.getSuperRegion().getId()-1]++;
-			}
-		}
-
-		return occupied; 
+		return (int) need; 
 	}
 
     // evalutate neighbours for attack
-	private PriorityQueue<RegionWrapper> evaluateAttackTargets(Region fromRegion, String myName, BotState state){
+	private PriorityQueue<RegionWrapper> evaluateAttackTargets(Region fromRegion, BotState state, RoundAnalysis analysis){
 
 		// considers: percentage in fulfilling continent rewards, opponent > neutral
 		
 		// get surrounding regions
-		LinkedList<Region> surrounding = getOpponentsSurrounding(fromRegion, myName);
+		ArrayList<Region> surrounding = analysis.getHostileNeighbors(fromRegion);
 
 		PriorityQueue<RegionWrapper> orderToAttack = new PriorityQueue<RegionWrapper>();
 
 		double reward;
 
-		int[] continentOccupied = continentOccupied(state.getVisibleMap().getRegions(), myName);
-
 		for(Region region: surrounding){
 
 			reward = 0;
@@ -304,10 +210,10 @@ public class BotStarter implements Bot
 			// get super region 
 			SuperRegion superRegion = region.getSuperRegion();
 
-			reward += ((double)continentOccupied[superRegion.getId()-1]/(double)superRegion.getSubRegions().size()) * superRegion.getArmiesReward();
+			reward += ((double)analysis.getOccupied(superRegion)/(double)superRegion.getSubRegions().size()) * superRegion.getArmiesReward() * weights.get(Weights.OCCUPATION_REWARD);
 
-			if(!region.getPlayerName().equals("neutral")){
-				reward++;
+			if(state.getOwner(region) != MapSnapshot.NEUTRAL){
+				reward += weights.get(Weights.OPPONENT_TARGET_BONUS);
 			}
 
 			orderToAttack.add(new RegionWrapper(region, (int)Math.ceil(reward)));
@@ -318,22 +224,20 @@ public class BotStarter implements Bot
 	}
 	
 	/**
-	 * Starting from all visible regions, return a queue of our regions that have a need for armies. 
+	 * Starting from all our visible regions, return a queue of our regions that have a need for armies. 
 	 * Queue will not include interior (non-border) regions. 
-	 * @param myName our player name
-	 * @param visible the visible regions
+	 * @param state the state with our player name
+	 * @param analysis our visible regions, borders and continent occupation of this round
 	 * @return the queue of regions in need of armies  
 	 */
-	private PriorityQueue<RegionWrapper> getRegionsNeedingArmies(String myName, LinkedList<Region> visible){
+	private PriorityQueue<RegionWrapper> getRegionsNeedingArmies(BotState state, RoundAnalysis analysis){
 		
 		PriorityQueue<RegionWrapper> needArmies = new PriorityQueue<RegionWrapper>();
 		//PriorityQueue<RegionWrapper> doNotNeedArmies = new PriorityQueue<RegionWrapper>();
-		totalEvaluatedArmyNeed = 0; 
 		
-		for(Region current : visible){
-			if (current.getPlayerName().equals(myName)){
-				int need = evaluateNeedArmies(current, myName, visible);
-				totalEvaluatedArmyNeed += need;
+		for(Region current : analysis.getOwnedRegions()){
+			if (state.isMine(current)){
+				int need = evaluateNeedArmies(current, state, analysis);
 				RegionWrapper wrapper = new RegionWrapper(current, need);
 				if (need > 0){
 					needArmies.add(wrapper);
@@ -353,40 +257,57 @@ public class BotStarter implements Bot
 	}
 		
 	/**
-	 * This method is called for at the second part of each round. This example attacks if a region has
-	 * more than 6 armies on it, and transfers if it has less than 6 and a neighboring owned region.
-	 * @return The list of PlaceArmiesMoves for one round
+	 * This method is called for at the second part of each round. The attacks of the greedy evaluation are
+	 * improved by the AnytimePlanner until shortly before timeOut, taking the armies placed this round into account.
+	 * @return The list of AttackTransferMoves for one round
 	 */
 	@Override
 	public ArrayList<AttackTransferMove> getAttackTransferMoves(BotState state, Long timeOut) 
+	{
+		Deadline deadline = new Deadline(timeOut);
+		ArrayList<AttackTransferMove> greedy = getGreedyAttackTransferMoves(state);
+		
+		if(placedRound != state.getRoundNumber())
+			placedArmies.clear();
+		return new AnytimePlanner(state, placedArmies, random, weights.get(Weights.CAPTURE_PROBABILITY)).improveAttacks(greedy, deadline);
+	}
+	
+	/**
+	 * Attacks the most rewarding target of each border region with more armies than the attack threshold that
+	 * it can capture with the capture probability, with the fewest armies that do so, and transfers from an interior region
+	 * towards the closest border.
+	 */
+	private ArrayList<AttackTransferMove> getGreedyAttackTransferMoves(BotState state) 
 	{
 		ArrayList<AttackTransferMove> attackTransferMoves = new ArrayList<AttackTransferMove>();
 		String myName = state.getMyPlayerName();
-		LinkedList<Region> visibleRegions = state.getVisibleMap().getRegions(); 
-		
+		RoundAnalysis analysis = state.getRoundAnalysis();
 		
-		for(Region fromRegion : state.getVisibleMap().getRegions())
+		for(Region fromRegion : analysis.getOwnedRegions())
 		{
-			if(fromRegion.ownedByPlayer(myName)) //could do an attack
+			if(state.isMine(fromRegion)) //could do an attack
 			{
-				if(isBorder(fromRegion, myName)){
-				PriorityQueue<RegionWrapper> possibleToRegions = evaluateAttackTargets(fromRegion, myName, state);
+				if(analysis.isBorder(fromRegion)){
+				PriorityQueue<RegionWrapper> possibleToRegions = evaluateAttackTargets(fromRegion, state, analysis);
 		
 				while(!possibleToRegions.isEmpty())
 				{
 					Region toRegion = possibleToRegions.poll().region;
 				
-					if(!toRegion.getPlayerName().equals(myName) && fromRegion.getArmies() > 4) //considers an attack
+					if(!state.isMine(toRegion) && fromRegion.getArmies() > weights.get(Weights.ATTACK_THRESHOLD)) //considers an attack
 					{
 
 						// if it has only one neighbor, move all out
-						LinkedList<Region> surroundings = getOpponentsSurrounding(fromRegion, myName);
+						ArrayList<Region> surroundings = analysis.getHostileNeighbors(fromRegion);
 						if(surroundings.size() == 1){
 							attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, (fromRegion.getArmies()-1)));
 						}else{
 
 					
-							attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, (int)Math.max(toRegion.getArmies()*2, fromRegion.getArmies()*0.6)));
+							int force = BattleOdds.minimalAttackers(toRegion.getArmies(), weights.get(Weights.CAPTURE_PROBABILITY));
+							if(force > fromRegion.getArmies()-1)
+								continue; //not enough armies to take it with good odds, try the next target
+							attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, force));
 						
 						}
 
@@ -401,7 +322,7 @@ public class BotStarter implements Bot
 				else if(fromRegion.getArmies() > 1) //do a transfer
 				{
 					// transfer to the state we own that is the closest to a border
-					Region transferTarget= getTransferTarget(fromRegion, myName, visibleRegions);
+					Region transferTarget= analysis.getTransferTarget(fromRegion);
 
 					attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, transferTarget, fromRegion.getArmies()-1));
 				    
@@ -416,52 +337,11 @@ public class BotStarter implements Bot
 		return attackTransferMoves;
 	}
 
-	private Region getTransferTarget(Region fromRegion, String myName, LinkedList<Region> visibleRegions){
-
-		HashMap<Region, Region> parents = new HashMap<Region, Region>();
-
-		Queue<Region> queue = new Queue<Region>(); 
-		queue.enqueue(fromRegion);
-		Region current;
-
-		// do a bsf to find closest move to a border state
-		while(!queue.empty()){
-
-			current = queue.dequeue();
-
-			// check if goal state is reached 
-			if(isBorder(current, myName)){
-
-				// back track to get the target transfer region
-				while(!parents.get(current).equals(fromRegion)){
-					current = parents.get(current);
-				}
-				return current;
-			}
-
-			// else explore unvisited neighors
-			LinkedList<Region> neighors = current.getNeighbors();
-
-			for(Region neighbor: neighors){
-
-				if(neighbor.ownedByPlayer(myName)){
-
-				if(!parents.containsKey(neighbor)){
-
-					queue.enqueue(neighbor);
-					parents.put(neighbor, current);
-				}
-			  }
-			}
-		}
-
-		return fromRegion;
-	}
-
-
 	public static void main(String[] args)
 	{
-		BotParser parser = new BotParser(new BotStarter());
+		// "bytes" as first argument reads the engine input with the ProtocolReader instead of a Scanner
+		boolean byteInput = args.length > 0 && args[0].equals("bytes");
+		BotParser parser = new BotParser(new BotStarter(), System.in, byteInput);
 		parser.run();
 	}
 
@@ -502,147 +382,4 @@ public class BotStarter implements Bot
 		}
 		
 	}
-
-	private class Queue<E> {
-
-		// head and tail of the queue
-		private Node<E> _head;
-		private Node<E> _tail;
-
-		/**
-		 * Constructor of the Queue class
-		 * 
-		 */
-		public Queue() {
-			// initially the queue is empty
-			_head = null;
-			_tail = null;
-		}
-
-		/**
-		 * Add one item to the queue
-		 * 
-		 * @param item
-		 *            item to add
-		 */
-		public void enqueue(E item) {
-
-			Node<E> node = new Node<E>(item);
-
-			// if queue is empty
-			if (_head == null) {
-				_head = node;
-				_tail = node;
-			}
-
-			else {
-				// add one node after tail
-				_tail.setNext(node);
-
-				// set the newly added node as tail
-				_tail = node;
-			}
-
-		}
-
-		/**
-		 * Remove the first node from queue
-		 * 
-		 * @return data to be removed
-		 */
-		public E dequeue() {
-
-			// if there is no element in the queue
-			if (empty()) {
-				throw new NoSuchElementException();
-			}
-
-			// store the removed element temporarily
-			Node<E> tmp = _head;
-
-			// set the second node as head
-			_head = _head.getNext();
-
-			// return data stored in the node removed
-			return tmp.getData();
-		}
-
-		/**
-		 * Check if the queue is empty
-		 * 
-		 * @return true if the queue is empty, false otherwise
-		 */
-		public boolean empty() {
-			return _head == null;
-		}
-
-		/**
-		 * Look, but not remove, the first element
-		 * 
-		 * @return data stored in the first node
-		 */
-		public E peek() {
-
-			// if the queue is empty, return null
-			if (empty()) {
-				return null;
-			}
-			// else return data stored in the first node
-			else {
-				return _head.getData();
-			}
-		}
-
-		// private class Node used to store data and make reference
-		@SuppressWarnings("hiding")
-		private class Node<E> {
-
-			// data to store in the node
-			private E _data;
-
-			// next and previous items
-			
-			private Node<E> _next;
-
-			/**
-			 * Construcor of Node class
-			 * 
-			 * @param item
-			 *            item to store
-			 */
-			public Node(E item) {
-				_data = item;
-			}
-
-			/**
-			 * Get data stored in this node
-			 * 
-			 * @return data stored
-			 */
-			public E getData() {
-				return _data;
-			}
-
-
-			/**
-			 * Get next node
-			 * 
-			 * @return next node
-			 */
-			public Node<E> getNext() {
-				return _next;
-			}
-
-			/**
-			 * Set the next node
-			 * 
-			 * @param next
-			 *            the next node
-			 */
-			public void setNext(Node<E> next) {
-				_next = next;
-			}
-
-		}
-	   }
 }
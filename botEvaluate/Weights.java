@@ -0,0 +1,130 @@
+package botEvaluate;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * The constants of the greedy evaluation of BotStarter as a vector, so they can be tuned by self-play (see
+ * localEngine.WeightTuner). The defaults are the constants the evaluation had before, which give the same moves.
+ * The bot loads the weights from the file given with -DevaluateWeights=file at startup, a properties file
+ * with a line "name=value" for every weight it changes.
+ */
+public class Weights {
+
+	public static final int OCCUPATION_NEED = 0; //divided by our regions in the super region of a border region
+	public static final int COMPLETION_NEED = 1; //times the reward, next to a super region we would complete
+	public static final int OPPONENT_ARMIES_NEED = 2; //times the armies of a neighbor that is not neutral
+	public static final int OCCUPATION_REWARD = 3; //times the reward, times the share of the target's super region we own
+	public static final int OPPONENT_TARGET_BONUS = 4; //for attacking an opponent instead of a neutral
+	public static final int ATTACK_THRESHOLD = 5; //armies a border region needs more than to attack
+	public static final int CAPTURE_PROBABILITY = 6; //chance to capture a target that attacks are sized for
+
+	public static final String[] NAMES = {"occupationNeed", "completionNeed", "opponentArmiesNeed", "occupationReward",
+			"opponentTargetBonus", "attackThreshold", "captureProbability"};
+	static final double[] DEFAULTS = {10, 2, 1, 1, 1, 4, 0.8};
+	static final double[] MIN = {0, 0, 0, 0, 0, 1, 0.5};
+	static final double[] MAX = {50, 10, 5, 5, 10, 20, 0.99};
+	static final double[] SCALES = {2, 0.5, 0.25, 0.25, 0.5, 1, 0.05}; //typical change of each weight while tuning
+
+	private final double[] values;
+
+	public Weights()
+	{
+		values = DEFAULTS.clone();
+	}
+
+	//the values are clamped to the range of each weight
+	public Weights(double[] values)
+	{
+		if(values.length != DEFAULTS.length)
+			throw new IllegalArgumentException("expected " + DEFAULTS.length + " weights, got " + values.length);
+		this.values = new double[values.length];
+		for(int i=0; i<values.length; i++)
+			this.values[i] = Math.max(MIN[i], Math.min(MAX[i], values[i]));
+	}
+
+	/**
+	 * The weights of the file given with -DevaluateWeights=file, the defaults when there is none or it can't be read.
+	 */
+	public static Weights fromProperty()
+	{
+		String file = System.getProperty("evaluateWeights");
+		if(file == null)
+			return new Weights();
+		try {
+			return read(file);
+		}
+		catch(IOException e) {
+			System.err.println("Unable to read weights " + e.getMessage());
+		}
+		catch(NumberFormatException e) {
+			System.err.println("Unable to parse weights " + e.getMessage());
+		}
+		return new Weights();
+	}
+
+	//weights missing from the file keep their defaults
+	public static Weights read(String file) throws IOException
+	{
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		}
+		finally {
+			in.close();
+		}
+		double[] values = DEFAULTS.clone();
+		for(int i=0; i<NAMES.length; i++)
+		{
+			String value = properties.getProperty(NAMES[i]);
+			if(value != null)
+				values[i] = Double.parseDouble(value.trim());
+		}
+		return new Weights(values);
+	}
+
+	public void write(String file, String comment) throws IOException
+	{
+		Properties properties = new Properties();
+		for(int i=0; i<NAMES.length; i++)
+			properties.setProperty(NAMES[i], String.valueOf(values[i]));
+		OutputStream out = new FileOutputStream(file);
+		try {
+			properties.store(out, comment);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	public static int size() {
+		return DEFAULTS.length;
+	}
+
+	public double get(int weight) {
+		return values[weight];
+	}
+
+	public double[] toArray() {
+		return values.clone();
+	}
+
+	public static double getScale(int weight) {
+		return SCALES[weight];
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder string = new StringBuilder();
+		for(int i=0; i<NAMES.length; i++)
+			string.append(i == 0 ? "" : " ").append(NAMES[i]).append('=').append(String.format("%.3f", values[i]));
+		return string.toString();
+	}
+
+}
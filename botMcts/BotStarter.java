@@ -0,0 +1,96 @@
+package botMcts;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import core.Bot;
+import core.BotParser;
+import core.BotState;
+import core.MapSnapshot;
+import core.StartPicker;
+import main.Region;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Plans placement and attacks together with a Monte Carlo tree search (see Mcts) on all processors, until
+ * shortly before the timeOut of the placement. The attacks of that plan are returned when the engine asks for them.
+ */
+public class BotStarter implements Bot
+{
+	private Random random = new Random();
+
+	private ArrayList<AttackTransferMove> plannedAttacks; //the attacks of the plan of plannedRound
+	private int plannedRound = -1;
+
+	//makes the random choices of the bot repeatable, for games of the LocalEngine without timeOut
+	public void setRandomSeed(long seed)
+	{
+		random = new Random(seed);
+	}
+
+	/**
+	 * The regions ranked by the StartPicker.
+	 */
+	@Override
+	public ArrayList<Region> getPreferredStartingRegions(BotState state, Long timeOut)
+	{
+		return new StartPicker(state, timeOut).getPreferredStartingRegions();
+	}
+
+	/**
+	 * Searches the plan for this round and returns its placement, its attacks are kept for getAttackTransferMoves.
+	 * @return The list of PlaceArmiesMoves for one round
+	 */
+	@Override
+	public ArrayList<PlaceArmiesMove> getPlaceArmiesMoves(BotState state, Long timeOut)
+	{
+		Plan plan = searchPlan(state, state.getStartingArmies(), timeOut);
+		MapSnapshot map = state.getMapSnapshot();
+		String myName = state.getMyPlayerName();
+		ArrayList<PlaceArmiesMove> placeArmiesMoves = new ArrayList<PlaceArmiesMove>();
+		for(int i=0; i<plan.numPlacements; i++)
+			placeArmiesMoves.add(new PlaceArmiesMove(myName, map.region(plan.placeRegion[i]), plan.placeArmies[i]));
+		plannedAttacks = attackTransferMoves(state, plan);
+		plannedRound = state.getRoundNumber();
+		return placeArmiesMoves;
+	}
+
+	/**
+	 * The attacks of the plan made for the placement, or of a new plan without armies to place if there was none.
+	 * @return The list of AttackTransferMoves for one round
+	 */
+	@Override
+	public ArrayList<AttackTransferMove> getAttackTransferMoves(BotState state, Long timeOut)
+	{
+		if(plannedRound != state.getRoundNumber())
+			return attackTransferMoves(state, searchPlan(state, 0, timeOut));
+		return plannedAttacks;
+	}
+
+	private Plan searchPlan(BotState state, int income, Long timeOut)
+	{
+		Mcts mcts = new Mcts(state, income);
+		int action = mcts.search(timeOut, random);
+		return mcts.plan(action);
+	}
+
+	private ArrayList<AttackTransferMove> attackTransferMoves(BotState state, Plan plan)
+	{
+		MapSnapshot map = state.getMapSnapshot();
+		String myName = state.getMyPlayerName();
+		ArrayList<AttackTransferMove> attackTransferMoves = new ArrayList<AttackTransferMove>();
+		for(int i=0; i<plan.numMoves; i++)
+			attackTransferMoves.add(new AttackTransferMove(myName, map.region(plan.moveFrom[i]), map.region(plan.moveTo[i]), plan.moveArmies[i]));
+		return attackTransferMoves;
+	}
+
+	public static void main(String[] args)
+	{
+		// "bytes" as first argument reads the engine input with the ProtocolReader instead of a Scanner
+		boolean byteInput = args.length > 0 && args[0].equals("bytes");
+		BotParser parser = new BotParser(new BotStarter(), System.in, byteInput);
+		parser.run();
+	}
+
+}
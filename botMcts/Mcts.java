@@ -0,0 +1,320 @@
+package botMcts;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import core.BeliefTracker;
+import core.BotState;
+import core.Deadline;
+import core.GameState;
+import core.MapSnapshot;
+
+/**
+ * Monte Carlo tree search over the actions of Policy, for the coming rounds. Every iteration fills the regions we
+ * can't see from what the BeliefTracker knows about them, goes down the tree choosing our action of each round by
+ * their upper confidence bound, plays the rest of the rounds with random actions, and scores the position.
+ * The opponent plays random actions all the way. The tree only holds our actions, not the positions they led to,
+ * because the battles make every playout end up somewhere else.
+ * All threads search the same tree, see Node for how they share it.
+ */
+class Mcts {
+
+	static final int TREE_DEPTH = 3; //rounds of our actions in the tree
+	static final int PLAYOUT_ROUNDS = 5; //rounds played in every iteration
+	static final double EXPLORATION = 0.4;
+	static final int ITERATIONS_WITHOUT_TIMEOUT = 400; //when the engine doesn't give a timeOut
+	static final int NEUTRAL_ARMIES = 2; //on regions that were never seen
+	static final int STARTING_REGIONS = 3; //of the opponent, where it is when we haven't seen it yet
+
+	static final double INCOME_WEIGHT = 1;
+	static final double REGION_WEIGHT = 0.5;
+	static final double ARMY_WEIGHT = 0.1;
+	static final double SCORE_SCALE = 5; //a score difference of this much gives a result of 0.73
+
+	//shared by all games in this JVM: one thread per processor unless -DmctsThreads says otherwise, the searching
+	//thread and THREADS-1 workers, which searches running at the same time split between them
+	private static final int THREADS = Math.max(1, Integer.getInteger("mctsThreads", Runtime.getRuntime().availableProcessors()));
+	private static final AtomicInteger activeSearches = new AtomicInteger();
+	private static final ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, THREADS - 1), new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable worker) {
+			Thread thread = new Thread(worker, "mcts-worker");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final MapSnapshot map;
+	private final GameState root; //visible regions as they are, hidden ones neutral
+	private final int myIncome;
+	private final int[] hidden; //regions we can't see
+	private final double[] opponentProbability; //of each hidden region
+	private final int[] opponentArmies; //armies of each hidden region if the opponent owns it
+	private final int[] neutralArmies; //armies of each hidden region if it is neutral
+	private final Node tree = new Node();
+
+	/**
+	 * @param myIncome armies we have to place in this round
+	 */
+	Mcts(BotState state, int myIncome)
+	{
+		this.myIncome = myIncome;
+		map = state.getMapSnapshot();
+		root = new GameState(map);
+		BeliefTracker beliefs = state.getBeliefs();
+		int numHidden = 0;
+		for(int r=0; r<map.numRegions; r++)
+			if(map.owner[r] == MapSnapshot.UNKNOWN)
+				numHidden++;
+		hidden = new int[numHidden];
+		opponentProbability = new double[numHidden];
+		opponentArmies = new int[numHidden];
+		neutralArmies = new int[numHidden];
+		//before we see the opponent it can be on any hidden region
+		double unseenOpponent = beliefs.getEstimatedOpponentRegions() > 0 ? 0 : Math.min(1, (double) STARTING_REGIONS / Math.max(1, numHidden));
+		int h = 0;
+		for(int r=0; r<map.numRegions; r++)
+		{
+			if(map.owner[r] != MapSnapshot.UNKNOWN)
+				continue;
+			int id = map.regionId[r];
+			root.set(r, MapSnapshot.NEUTRAL, NEUTRAL_ARMIES);
+			hidden[h] = r;
+			opponentProbability[h] = beliefs.opponentProbability(id);
+			if(opponentProbability[h] > 0)
+				opponentArmies[h] = Math.max(1, (int) Math.round(beliefs.getExpectedOpponentArmies(id) / opponentProbability[h]));
+			else if(beliefs.getLastOwner(id) == MapSnapshot.UNKNOWN)
+			{
+				opponentProbability[h] = unseenOpponent;
+				opponentArmies[h] = NEUTRAL_ARMIES + myIncome;
+			}
+			neutralArmies[h] = beliefs.getLastOwner(id) == MapSnapshot.NEUTRAL ? beliefs.getLastArmies(id) : NEUTRAL_ARMIES;
+			h++;
+		}
+	}
+
+	/**
+	 * Searches until the deadline and returns the action for this round that was tried most. The search gets its
+	 * share of the THREADS: all of them when it is the only one running, just the calling thread when there are
+	 * as many searches as threads, as there are on a BotServer with many games.
+	 * Without a timeOut it does ITERATIONS_WITHOUT_TIMEOUT iterations on this thread, so games with a seeded
+	 * random play the same every time.
+	 */
+	int search(Long timeOut, Random random)
+	{
+		final Deadline deadline = new Deadline(timeOut);
+		if(timeOut == null || timeOut <= 0)
+		{
+			Worker worker = new Worker(random.nextLong());
+			for(int i=0; i<ITERATIONS_WITHOUT_TIMEOUT; i++)
+				worker.iterate();
+		}
+		else
+		{
+			int share = THREADS / activeSearches.incrementAndGet();
+			try {
+				search(share, deadline, random);
+			}
+			finally {
+				activeSearches.decrementAndGet();
+			}
+		}
+		return bestAction();
+	}
+
+	//workers for share-1 threads of the pool, and this thread
+	private void search(int share, Deadline deadline, Random random)
+	{
+		ArrayList<PooledWorker> pooled = new ArrayList<PooledWorker>();
+		for(int t=1; t<share; t++)
+		{
+			PooledWorker worker = new PooledWorker(random.nextLong(), deadline);
+			worker.future = workers.submit(worker);
+			pooled.add(worker);
+		}
+		Worker worker = new Worker(random.nextLong());
+		do {
+			worker.iterate();
+		} while(!deadline.passed());
+		for(PooledWorker pooledWorker : pooled)
+		{
+			//a worker still queued behind the workers of other searches isn't waited for
+			if(pooledWorker.started.compareAndSet(false, true))
+				continue;
+			try {
+				pooledWorker.future.get();
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch(ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	private int bestAction()
+	{
+		Node[] children = tree.getChildren();
+		int best = 0;
+		for(int a=1; a<children.length; a++)
+			if(children[a].getVisits() > children[best].getVisits()
+					|| (children[a].getVisits() == children[best].getVisits() && children[a].getMean() > children[best].getMean()))
+				best = a;
+		return best;
+	}
+
+	int getIterations() {
+		return tree.getVisits();
+	}
+
+	/**
+	 * The moves of the action on the real position. Hidden regions don't matter for them: our moves only depend
+	 * on our regions and their neighbors.
+	 */
+	Plan plan(int action)
+	{
+		Plan plan = new Plan(map.numRegions);
+		new Policy(map).plan(root, MapSnapshot.ME, myIncome, action, plan);
+		return plan;
+	}
+
+	//what one thread needs to play, so threads share nothing but the tree
+	private class Worker {
+
+		private final Random random;
+		private final GameState state = root.copy();
+		private final Policy policy = new Policy(map);
+		private final Plan myPlan = new Plan(map.numRegions);
+		private final Plan opponentPlan = new Plan(map.numRegions);
+		private final Node[] path = new Node[TREE_DEPTH+1];
+
+		Worker(long seed)
+		{
+			random = new Random(seed);
+		}
+
+		void iterate()
+		{
+			int mark = state.mark();
+			for(int h=0; h<hidden.length; h++)
+			{
+				if(opponentProbability[h] > 0 && random.nextDouble() < opponentProbability[h])
+					state.set(hidden[h], MapSnapshot.OPPONENT, opponentArmies[h]);
+				else if(neutralArmies[h] != NEUTRAL_ARMIES)
+					state.set(hidden[h], MapSnapshot.NEUTRAL, neutralArmies[h]);
+			}
+
+			tree.addVirtualLoss();
+			path[0] = tree;
+			int depth = 0;
+			Node node = tree;
+			double result = -1;
+			for(int round=0; round<PLAYOUT_ROUNDS; round++)
+			{
+				int action;
+				if(node != null && round < TREE_DEPTH && (round == 0 || node.getVisits() > 1))
+				{
+					Node[] children = node.expand(Policy.NUM_ACTIONS);
+					action = Node.select(children, node.getVisits(), EXPLORATION, random.nextInt(children.length));
+					node = children[action];
+					node.addVirtualLoss();
+					path[++depth] = node;
+				}
+				else
+				{
+					node = null;
+					action = random.nextInt(Policy.NUM_ACTIONS);
+				}
+				playRound(round == 0 ? myIncome : state.income(MapSnapshot.ME), action);
+				result = result(state);
+				if(result == 0 || result == 1)
+					break;
+			}
+			if(!(result == 0 || result == 1))
+				result = evaluate(state);
+			for(int d=0; d<=depth; d++)
+				path[d].addResult(result);
+			state.undo(mark); //back to the root position for the next iteration
+		}
+
+		private void playRound(int income, int action)
+		{
+			policy.plan(state, MapSnapshot.ME, income, action, myPlan);
+			policy.plan(state, MapSnapshot.OPPONENT, state.income(MapSnapshot.OPPONENT), random.nextInt(Policy.NUM_ACTIONS), opponentPlan);
+			place(myPlan);
+			place(opponentPlan);
+
+			state.beginMoves();
+			Plan first = random.nextBoolean() ? myPlan : opponentPlan;
+			Plan second = first == myPlan ? opponentPlan : myPlan;
+			int firstPlayer = first == myPlan ? MapSnapshot.ME : MapSnapshot.OPPONENT;
+			for(int i=0; i<first.numMoves || i<second.numMoves; i++)
+			{
+				if(i < first.numMoves)
+					state.attackTransfer(firstPlayer, first.moveFrom[i], first.moveTo[i], first.moveArmies[i], random);
+				if(i < second.numMoves)
+					state.attackTransfer(MapSnapshot.OPPONENT + MapSnapshot.ME - firstPlayer,
+							second.moveFrom[i], second.moveTo[i], second.moveArmies[i], random);
+			}
+		}
+
+		private void place(Plan plan)
+		{
+			for(int i=0; i<plan.numPlacements; i++)
+				state.addArmies(plan.placeRegion[i], plan.placeArmies[i]);
+		}
+
+	}
+
+	//a Worker on a thread of the pool, which doesn't start once the search is done with it
+	private class PooledWorker extends Worker implements Runnable {
+
+		private final Deadline deadline;
+		private final AtomicBoolean started = new AtomicBoolean();
+		private Future<?> future;
+
+		PooledWorker(long seed, Deadline deadline)
+		{
+			super(seed);
+			this.deadline = deadline;
+		}
+
+		@Override
+		public void run()
+		{
+			if(!started.compareAndSet(false, true))
+				return;
+			while(!deadline.passed())
+				iterate();
+		}
+
+	}
+
+	//1 when the opponent has no regions left, 0 when we have none, -1 otherwise
+	private static double result(GameState state)
+	{
+		if(state.countRegions(MapSnapshot.OPPONENT) == 0)
+			return 1;
+		if(state.countRegions(MapSnapshot.ME) == 0)
+			return 0;
+		return -1;
+	}
+
+	//our lead in income, regions and armies, between 0 and 1
+	private static double evaluate(GameState state)
+	{
+		double lead = INCOME_WEIGHT * (state.income(MapSnapshot.ME) - state.income(MapSnapshot.OPPONENT))
+				+ REGION_WEIGHT * (state.countRegions(MapSnapshot.ME) - state.countRegions(MapSnapshot.OPPONENT))
+				+ ARMY_WEIGHT * (state.countArmies(MapSnapshot.ME) - state.countArmies(MapSnapshot.OPPONENT));
+		return 1 / (1 + Math.exp(-lead / SCORE_SCALE));
+	}
+
+}
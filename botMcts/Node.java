@@ -0,0 +1,91 @@
+package botMcts;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A node of the search tree: the statistics of one action after the actions of its parents. All threads of the
+ * search share the tree without locks, the counters are updated with compare and set.
+ * A thread that goes through a node counts its visit right away with a result of 0, a virtual loss, so other
+ * threads try other actions until the real result is added.
+ */
+class Node {
+
+	static final long VALUE_SCALE = 1000000; //results are kept as fixed point numbers
+
+	private static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+	private static final AtomicLongFieldUpdater<Node> VALUE = AtomicLongFieldUpdater.newUpdater(Node.class, "value");
+	private static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+			AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+
+	private volatile int visits;
+	private volatile long value; //sum of the results, times VALUE_SCALE
+	private volatile Node[] children; //by action, null until the node is expanded
+
+	int getVisits() {
+		return visits;
+	}
+
+	double getMean()
+	{
+		int n = visits;
+		return n == 0 ? 0 : (double) value / VALUE_SCALE / n;
+	}
+
+	Node[] getChildren() {
+		return children;
+	}
+
+	//children for all actions, created by the first thread that gets here
+	Node[] expand(int numActions)
+	{
+		Node[] current = children;
+		if(current != null)
+			return current;
+		Node[] created = new Node[numActions];
+		for(int a=0; a<numActions; a++)
+			created[a] = new Node();
+		if(CHILDREN.compareAndSet(this, null, created))
+			return created;
+		return children;
+	}
+
+	void addVirtualLoss()
+	{
+		VISITS.incrementAndGet(this);
+	}
+
+	//the result of a visit counted by addVirtualLoss, between 0 (lost) and 1 (won)
+	void addResult(double result)
+	{
+		VALUE.addAndGet(this, (long) (result * VALUE_SCALE));
+	}
+
+	/**
+	 * The child with the highest upper confidence bound, children that were never visited first.
+	 * @param start action to start looking at, so threads that arrive together don't all pick the same unvisited child
+	 */
+	static int select(Node[] children, int parentVisits, double exploration, int start)
+	{
+		double logVisits = Math.log(Math.max(1, parentVisits));
+		int best = -1;
+		double bestBound = 0;
+		for(int i=0; i<children.length; i++)
+		{
+			int a = (start + i) % children.length;
+			Node child = children[a];
+			int n = child.visits;
+			if(n == 0)
+				return a;
+			double bound = (double) child.value / VALUE_SCALE / n + exploration * Math.sqrt(logVisits / n);
+			if(best < 0 || bound > bestBound)
+			{
+				best = a;
+				bestBound = bound;
+			}
+		}
+		return best;
+	}
+
+}
@@ -0,0 +1,54 @@
+package botMcts;
+
+/**
+ * The moves of one player for one round, as region indices of the MapSnapshot. The arrays are allocated once
+ * for the size of the map and refilled by Policy, so the search doesn't allocate while it plays.
+ */
+class Plan {
+
+	int numPlacements;
+	final int[] placeRegion;
+	final int[] placeArmies;
+
+	int numMoves;
+	final int[] moveFrom;
+	final int[] moveTo;
+	final int[] moveArmies;
+
+	Plan(int numRegions)
+	{
+		placeRegion = new int[numRegions];
+		placeArmies = new int[numRegions];
+		moveFrom = new int[numRegions];
+		moveTo = new int[numRegions];
+		moveArmies = new int[numRegions];
+	}
+
+	void clear()
+	{
+		numPlacements = 0;
+		numMoves = 0;
+	}
+
+	void place(int region, int armies)
+	{
+		for(int i=0; i<numPlacements; i++)
+		{
+			if(placeRegion[i] == region)
+			{
+				placeArmies[i] += armies;
+				return;
+			}
+		}
+		placeRegion[numPlacements] = region;
+		placeArmies[numPlacements++] = armies;
+	}
+
+	void move(int from, int to, int armies)
+	{
+		moveFrom[numMoves] = from;
+		moveTo[numMoves] = to;
+		moveArmies[numMoves++] = armies;
+	}
+
+}
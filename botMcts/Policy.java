@@ -0,0 +1,222 @@
+package botMcts;
+
+import core.BattleOdds;
+import core.GameState;
+import core.MapSnapshot;
+
+/**
+ * Turns one of NUM_ACTIONS strategies into the placement and attacks of a player. An action chooses which
+ * border region gets the armies (the best, second best... by the value of what it can attack), whether they
+ * are split with the most threatened border region, and how sure attacks have to be to capture their target.
+ * Actions are the same on every map and in every round, so the search can compare them across the
+ * positions it plays. A Policy keeps its work arrays, one is needed per thread.
+ */
+class Policy {
+
+	static final int FOCUS_CHOICES = 4;
+	static final double[] CAPTURE_PROBABILITIES = {0.5, 0.75, 0.95};
+	static final int SPLITS = 2; //all armies on the focus, or half of them on the most threatened region
+	static final int NUM_ACTIONS = FOCUS_CHOICES * CAPTURE_PROBABILITIES.length * SPLITS;
+
+	static final double OPPONENT_REGION_BONUS = 1; //taking a region from the opponent instead of a neutral
+	static final double COMPLETE_SUPER_REGION_BONUS = 2; //times the reward
+	static final double DEFEND_BONUS = 2; //for a border region with more opponent armies next to it than its own
+
+	private final MapSnapshot map;
+	private final int[] borders;
+	private final int[] target; //by region index, best region to attack from it, -1 for none
+	private final double[] score; //by region index, of border regions
+	private final int[] threat; //by region index, opponent armies next to a border region
+	private final int[] placed;
+	private final int[] distance; //by region index, steps to the closest border region
+	private final int[] queue;
+	private final int[] focus = new int[FOCUS_CHOICES]; //best border regions, best first
+	private GameState state; //of the plan being made
+	private int player;
+
+	Policy(MapSnapshot map)
+	{
+		this.map = map;
+		borders = new int[map.numRegions];
+		target = new int[map.numRegions];
+		score = new double[map.numRegions];
+		threat = new int[map.numRegions];
+		placed = new int[map.numRegions];
+		distance = new int[map.numRegions];
+		queue = new int[map.numRegions];
+	}
+
+	/**
+	 * Fills the plan with the moves of the player for the action, made on the state before any moves of this round.
+	 */
+	void plan(GameState state, int player, int income, int action, Plan plan)
+	{
+		plan.clear();
+		this.state = state;
+		this.player = player;
+		int numFocus = action % FOCUS_CHOICES;
+		double captureProbability = CAPTURE_PROBABILITIES[action / FOCUS_CHOICES % CAPTURE_PROBABILITIES.length];
+		boolean split = action / (FOCUS_CHOICES * CAPTURE_PROBABILITIES.length) == 1;
+		int opponent = player == MapSnapshot.ME ? MapSnapshot.OPPONENT : MapSnapshot.ME;
+
+		int numBorders = 0;
+		int numTop = 0;
+		int threatened = -1;
+		int anyRegion = -1;
+		for(int r=0; r<map.numRegions; r++)
+		{
+			placed[r] = 0;
+			if(state.getOwner(r) != player)
+				continue;
+			anyRegion = r;
+			int best = -1;
+			double bestValue = 0;
+			int around = 0;
+			for(int n = map.neighborStart[r]; n < map.neighborStart[r+1]; n++)
+			{
+				int neighbor = map.neighbors[n];
+				if(state.getOwner(neighbor) == player)
+					continue;
+				if(state.getOwner(neighbor) == opponent)
+					around += state.getArmies(neighbor);
+				double value = targetValue(neighbor, state.getOwner(neighbor) == opponent);
+				if(best < 0 || value > bestValue)
+				{
+					best = neighbor;
+					bestValue = value;
+				}
+			}
+			target[r] = best;
+			if(best < 0)
+				continue;
+			borders[numBorders++] = r;
+			threat[r] = around;
+			score[r] = bestValue + (around > state.getArmies(r) ? DEFEND_BONUS : 0);
+			numTop = insertTop(r, numTop);
+			if(around > 0 && (threatened < 0 || around - state.getArmies(r) > threat[threatened] - state.getArmies(threatened)))
+				threatened = r;
+		}
+		if(anyRegion < 0)
+			return; //no regions left
+
+		//placement
+		int main = numTop == 0 ? anyRegion : focus[Math.min(numFocus, numTop-1)];
+		if(split && threatened >= 0 && threatened != main && income > 1)
+		{
+			placed[threatened] = income / 2;
+			plan.place(threatened, income / 2);
+			income -= income / 2;
+		}
+		if(income > 0)
+		{
+			placed[main] += income;
+			plan.place(main, income);
+		}
+
+		//one attack from every border region, on the most valuable target it can capture with the probability
+		for(int i=0; i<numBorders; i++)
+		{
+			int r = borders[i];
+			int available = state.getArmies(r) + placed[r] - 1;
+			int best = -1;
+			int bestForce = 0;
+			double bestValue = 0;
+			int hostile = 0;
+			for(int n = map.neighborStart[r]; n < map.neighborStart[r+1]; n++)
+			{
+				int neighbor = map.neighbors[n];
+				if(state.getOwner(neighbor) == player)
+					continue;
+				hostile++;
+				int force = BattleOdds.minimalAttackers(state.getArmies(neighbor), captureProbability);
+				if(force > available)
+					continue;
+				double value = targetValue(neighbor, state.getOwner(neighbor) == opponent);
+				if(best < 0 || value > bestValue)
+				{
+					best = neighbor;
+					bestForce = force;
+					bestValue = value;
+				}
+			}
+			if(best >= 0)
+				plan.move(r, best, hostile == 1 ? available : bestForce);
+		}
+
+		transfers(plan);
+	}
+
+	//armies of regions without hostile neighbors go one step closer to the closest border region
+	private void transfers(Plan plan)
+	{
+		int head = 0;
+		int tail = 0;
+		for(int r=0; r<map.numRegions; r++)
+		{
+			distance[r] = -1;
+			if(state.getOwner(r) == player && target[r] >= 0)
+			{
+				distance[r] = 0;
+				queue[tail++] = r;
+			}
+		}
+		while(head < tail)
+		{
+			int r = queue[head++];
+			for(int n = map.neighborStart[r]; n < map.neighborStart[r+1]; n++)
+			{
+				int neighbor = map.neighbors[n];
+				if(state.getOwner(neighbor) == player && distance[neighbor] < 0)
+				{
+					distance[neighbor] = distance[r] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		for(int r=0; r<map.numRegions; r++)
+		{
+			if(state.getOwner(r) != player || distance[r] <= 0 || state.getArmies(r) <= 1)
+				continue;
+			for(int n = map.neighborStart[r]; n < map.neighborStart[r+1]; n++)
+			{
+				int neighbor = map.neighbors[n];
+				if(distance[neighbor] == distance[r] - 1 && state.getOwner(neighbor) == player)
+				{
+					plan.move(r, neighbor, state.getArmies(r) - 1);
+					break;
+				}
+			}
+		}
+	}
+
+	//value of capturing the region for the player of the plan
+	private double targetValue(int r, boolean fromOpponent)
+	{
+		int s = map.superRegion[r];
+		int size = map.superRegionSize[s];
+		int reward = map.superRegionReward[s];
+		int owned = state.countOwned(player, s);
+		double value = 1 + (double) reward * (owned + 1) / size;
+		if(owned + 1 >= size)
+			value += reward * COMPLETE_SUPER_REGION_BONUS;
+		if(fromOpponent)
+			value += OPPONENT_REGION_BONUS;
+		return value;
+	}
+
+	//keeps the FOCUS_CHOICES border regions with the highest score in focus, returns how many there are
+	private int insertTop(int r, int numTop)
+	{
+		int i = Math.min(numTop, FOCUS_CHOICES - 1);
+		if(numTop == FOCUS_CHOICES && score[focus[i]] >= score[r])
+			return numTop;
+		while(i > 0 && score[focus[i-1]] < score[r])
+		{
+			focus[i] = focus[i-1];
+			i--;
+		}
+		focus[i] = r;
+		return Math.min(numTop + 1, FOCUS_CHOICES);
+	}
+
+}
@@ -19,13 +19,25 @@ package botOriginal;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.Random;
 
+import core.Bot;
+import core.BotParser;
+import core.BotState;
 import main.Region;
 import move.AttackTransferMove;
 import move.PlaceArmiesMove;
 
 public class BotStarter implements Bot 
 {
+	private Random random = new Random();
+	
+	//makes the random choices of the bot repeatable, for games of the LocalEngine
+	public void setRandomSeed(long seed)
+	{
+		random = new Random(seed);
+	}
+	
 	@Override
 	/**
 	 * A method used at the start of the game to decide which player start with what Regions. 6 Regions are required to be returned.
@@ -38,7 +50,7 @@ public class BotStarter implements Bot
 		ArrayList<Region> preferredStartingRegions = new ArrayList<Region>();
 		for(int i=0; i<m; i++)
 		{
-			double rand = Math.random();
+			double rand = random.nextDouble();
 			int r = (int) (rand*state.getPickableStartingRegions().size());
 			int regionId = state.getPickableStartingRegions().get(r).getId();
 			Region region = state.getFullMap().getRegion(regionId);
@@ -69,7 +81,7 @@ public class BotStarter implements Bot
 		
 		while(armiesLeft > 0)
 		{
-			double rand = Math.random();
+			double rand = random.nextDouble();
 			int r = (int) (rand*visibleRegions.size());
 			Region region = visibleRegions.get(r);
 			
@@ -104,7 +116,7 @@ public class BotStarter implements Bot
 				
 				while(!possibleToRegions.isEmpty())
 				{
-					double rand = Math.random();
+					double rand = random.nextDouble();
 					int r = (int) (rand*possibleToRegions.size());
 					Region toRegion = possibleToRegions.get(r);
 					
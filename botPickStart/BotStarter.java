@@ -15,59 +15,40 @@
 //    For the full copyright and license information, please view the LICENSE
 //    file that was distributed with this source code.
 
-package bot3;
+package botPickStart;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.Random;
 
+import core.Bot;
+import core.BotParser;
+import core.BotState;
+import core.MapSnapshot;
+import core.StartPicker;
 import main.Region;
 import move.AttackTransferMove;
 import move.PlaceArmiesMove;
 
 public class BotStarter implements Bot 
 {
+	private Random random = new Random();
+	
+	//makes the random choices of the bot repeatable, for games of the LocalEngine
+	public void setRandomSeed(long seed)
+	{
+		random = new Random(seed);
+	}
+	
 	@Override
 	/**
 	 * A method used at the start of the game to decide which player start with what Regions. 6 Regions are required to be returned.
-	 * This example randomly picks 6 regions from the pickable starting Regions given by the engine.
+	 * The regions are ranked by the StartPicker, which works on any map.
 	 * @return : a list of m (m=6) Regions starting with the most preferred Region and ending with the least preferred Region to start with 
 	 */
 	public ArrayList<Region> getPreferredStartingRegions(BotState state, Long timeOut)
 	{
-
-
-		
-		ArrayList<Region> preferredStartingRegions = new ArrayList<Region>();
-	
-		// // get the list of pickable regions
-		ArrayList<Region> pickable = state.getPickableStartingRegions(); 
-		// // sort regions numbers by ID
-		ArrayList<ArrayList<Region>> byID = new ArrayList<ArrayList<Region>>();
-		
-		for(int i = 0; i < 6; i++){
-			// 2 from each super region
-			byID.add(new ArrayList<Region>());
-		}
-
-		for(int i = 0; i < pickable.size(); i++){
-			byID.get(pickable.get(i).getSuperRegion().getId()-1).add(pickable.get(i));
-		}
-
-		// // our order would be: south america, north america, africa, australia, europe, asia
-		// // 2-> 1 -> 4 > 6 -> 3 -> 5
-		for(int i = 0; i < 2; i++){
-			preferredStartingRegions.add(byID.get(1).get(i)); 
-	    }
-
-	    for(int i = 0; i < 2; i++){
-	    	preferredStartingRegions.add(byID.get(0).get(i)); 
-	    }
-
-	    for(int i = 0; i < 2; i++){
-	    	preferredStartingRegions.add(byID.get(3).get(i)); 
-	    }
-		
-		return preferredStartingRegions;
+		return new StartPicker(state, timeOut).getPreferredStartingRegions();
 	}
 
 
@@ -95,11 +76,11 @@ public class BotStarter implements Bot
 
 		for(int i = 0; i < visibleRegions.size(); i++){
 
-			if(visibleRegions.get(i).ownedByPlayer(myName)){
+			if(state.isMine(visibleRegions.get(i))){
 				
 				current = visibleRegions.get(i);
 
-				if(isBorder(current, myName)){
+				if(isBorder(current, state)){
 	                borderingRegions.add(current);
 				}
 
@@ -118,14 +99,14 @@ public class BotStarter implements Bot
 		return placeArmiesMoves;
 	}
 
-	private boolean isBorder(Region region, String myName){
+	private boolean isBorder(Region region, BotState state){
 
 			LinkedList<Region> neighbors = region.getNeighbors();
 
 			int numNeighborsChecked = 0;
 			while(numNeighborsChecked < neighbors.size()){
 				
-				if(!neighbors.get(numNeighborsChecked).ownedByPlayer(myName)){
+				if(!state.isMine(neighbors.get(numNeighborsChecked))){
 
 					// add it to list then exit while loop
 					return true;
@@ -151,30 +132,30 @@ public class BotStarter implements Bot
 		
 		for(Region fromRegion : state.getVisibleMap().getRegions())
 		{
-			if(fromRegion.ownedByPlayer(myName)) //do an attack
+			if(state.isMine(fromRegion)) //do an attack
 			{
 				ArrayList<Region> possibleToRegions = new ArrayList<Region>();
 				possibleToRegions.addAll(fromRegion.getNeighbors());
 		
 				while(!possibleToRegions.isEmpty())
 				{
-					double rand = Math.random();
+					double rand = random.nextDouble();
 					int r = (int) (rand*possibleToRegions.size());
 					Region toRegion = possibleToRegions.get(r);
 
 					
-					if(!toRegion.getPlayerName().equals(myName) && fromRegion.getArmies() > 3) //do an attack
+					if(!state.isMine(toRegion) && fromRegion.getArmies() > 3) //do an attack
 					{
-						if(toRegion.getPlayerName().equals("neutral")){
+						if(state.getOwner(toRegion) == MapSnapshot.NEUTRAL){
 							attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, 4));
 						}else{
 						attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, (int)(fromRegion.getArmies()*0.65)));
 				      	}
 						break;
 					}
-					else if(toRegion.getPlayerName().equals(myName) && isBorder(toRegion, myName) && fromRegion.getArmies() > 1) //do a transfer
+					else if(state.isMine(toRegion) && isBorder(toRegion, state) && fromRegion.getArmies() > 1) //do a transfer
 					{
-						if(!isBorder(fromRegion, myName)){
+						if(!isBorder(fromRegion, state)){
 						attackTransferMoves.add(new AttackTransferMove(myName, fromRegion, toRegion, fromRegion.getArmies()-1));
 					}
 						break;
@@ -0,0 +1,77 @@
+package core;
+
+/**
+ * Hands out armies one by one to the item where the next army is worth most, taking the items from a heap
+ * ordered by that value. For utilities whose marginal values don't grow (see ArmyUtility) this maximises the
+ * total utility, and every army is placed. Placing k armies on n items takes O(n + k log n).
+ * The heap arrays are kept for the next allocation.
+ */
+public class ArmyAllocator {
+
+	private int[] heap = new int[16]; //items, the one with the highest value first
+	private double[] value = new double[16]; //by item, value of its next army
+
+	/**
+	 * @return armies for each item
+	 */
+	public int[] allocate(int numItems, int armies, ArmyUtility utility)
+	{
+		int[] placed = new int[numItems];
+		allocate(numItems, armies, utility, placed);
+		return placed;
+	}
+
+	/**
+	 * Adds the armies of each item to placed, which is not cleared, so the allocation can continue an earlier one.
+	 */
+	public void allocate(int numItems, int armies, ArmyUtility utility, int[] placed)
+	{
+		if(numItems == 0 || armies <= 0)
+			return;
+		if(heap.length < numItems)
+		{
+			heap = new int[numItems];
+			value = new double[numItems];
+		}
+		for(int i=0; i<numItems; i++)
+		{
+			heap[i] = i;
+			value[i] = utility.marginal(i, placed[i]);
+		}
+		for(int i=numItems/2-1; i>=0; i--)
+			siftDown(i, numItems);
+
+		for(int a=0; a<armies; a++)
+		{
+			int best = heap[0];
+			placed[best]++;
+			value[best] = utility.marginal(best, placed[best]);
+			siftDown(0, numItems);
+		}
+	}
+
+	//higher value first, the lower item of equal values, so allocations don't depend on the heap order
+	private boolean before(int a, int b)
+	{
+		return value[a] > value[b] || (value[a] == value[b] && a < b);
+	}
+
+	private void siftDown(int i, int size)
+	{
+		int item = heap[i];
+		while(true)
+		{
+			int child = 2*i + 1;
+			if(child >= size)
+				break;
+			if(child + 1 < size && before(heap[child+1], heap[child]))
+				child++;
+			if(!before(heap[child], item))
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = item;
+	}
+
+}
@@ -0,0 +1,16 @@
+package core;
+
+/**
+ * What one more army on an item (a region, usually) is worth to a strategy, for the ArmyAllocator.
+ * The allocation is optimal when the value of an item never grows with the armies it already has.
+ */
+public interface ArmyUtility {
+	
+	/**
+	 * @param item index of the item, from 0 to the number of items given to the allocator
+	 * @param placed armies the item got so far
+	 * @return the value of giving it one more
+	 */
+	public double marginal(int item, int placed);
+
+}
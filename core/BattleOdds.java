@@ -0,0 +1,175 @@
+package core;
+
+/**
+ * Odds of a Warlight attack: every attacking army kills a defender with a chance of 60%, every defending army kills
+ * an attacker with a chance of 70%, and the region is captured when all defenders die and at least one attacker
+ * survives. Both kill counts are binomial, so the odds are exact, not sampled. They are computed once for up to
+ * MAX_ARMIES armies on each side, so a bot can look them up in constant time while it makes its moves;
+ * larger battles use a normal approximation.
+ */
+public class BattleOdds {
+
+	public static final double ATTACKER_KILL_CHANCE = 0.6;
+	public static final double DEFENDER_KILL_CHANCE = 0.7;
+	public static final int MAX_ARMIES = 200;
+	static final int PROBABILITY_STEPS = 100; //minimal attackers are kept for every whole percent
+
+	private static final int SIZE = MAX_ARMIES + 1;
+
+	//indexed by attackers * SIZE + defenders
+	private static final float[] success = new float[SIZE * SIZE];
+	private static final float[] survivors = new float[SIZE * SIZE]; //attackers left in the captured region, if it's captured
+	//indexed by defenders * (PROBABILITY_STEPS+1) + percent, SIZE if it takes more than MAX_ARMIES
+	private static final short[] minimalAttackers = new short[SIZE * (PROBABILITY_STEPS+1)];
+
+	static {
+		computeTables();
+	}
+
+	private static void computeTables()
+	{
+		//defenderKills[d][k]: chance that d defenders kill at most k attackers, killSum[d][k]: sum of j*P(j kills) for j<=k
+		double[][] defenderKills = new double[SIZE][];
+		double[][] killSum = new double[SIZE][];
+		double[] pmf = {1};
+		for(int d=0; d<SIZE; d++)
+		{
+			if(d > 0)
+				pmf = nextBinomial(pmf, DEFENDER_KILL_CHANCE);
+			defenderKills[d] = new double[d+1];
+			killSum[d] = new double[d+1];
+			double cumulative = 0;
+			double sum = 0;
+			for(int k=0; k<=d; k++)
+			{
+				cumulative += pmf[k];
+				sum += k * pmf[k];
+				defenderKills[d][k] = cumulative;
+				killSum[d][k] = sum;
+			}
+		}
+
+		pmf = new double[] {1};
+		double[] atLeast = new double[SIZE+1]; //chance that the attackers kill at least d defenders
+		for(int a=0; a<SIZE; a++)
+		{
+			if(a > 0)
+				pmf = nextBinomial(pmf, ATTACKER_KILL_CHANCE);
+			atLeast[a+1] = 0;
+			for(int k=a; k>=0; k--)
+				atLeast[k] = atLeast[k+1] + pmf[k];
+			for(int d=0; d<SIZE; d++)
+			{
+				if(a == 0 || d > a)
+					continue; //can't capture, success stays 0
+				int k = Math.min(a-1, d); //the defenders have to kill fewer than a attackers
+				double survive = defenderKills[d][k];
+				success[a*SIZE + d] = (float) (Math.min(1, atLeast[d]) * survive);
+				if(survive > 0)
+					survivors[a*SIZE + d] = (float) (a - killSum[d][k] / survive);
+			}
+		}
+
+		for(int d=0; d<SIZE; d++)
+		{
+			int a = 1;
+			for(int percent=0; percent<=PROBABILITY_STEPS; percent++)
+			{
+				float probability = (float) percent / PROBABILITY_STEPS;
+				while(a < SIZE && success[a*SIZE + d] < probability)
+					a++;
+				minimalAttackers[d*(PROBABILITY_STEPS+1) + percent] = (short) a;
+			}
+		}
+	}
+
+	//distribution of n+1 trials from the one of n trials
+	private static double[] nextBinomial(double[] pmf, double p)
+	{
+		double[] next = new double[pmf.length+1];
+		for(int k=0; k<pmf.length; k++)
+		{
+			next[k] += pmf[k] * (1-p);
+			next[k+1] += pmf[k] * p;
+		}
+		return next;
+	}
+
+	/**
+	 * Chance that the attackers capture a region with the given number of defenders.
+	 */
+	public static double successProbability(int attackers, int defenders)
+	{
+		if(attackers <= 0)
+			return 0;
+		if(defenders <= 0)
+			return 1;
+		if(attackers <= MAX_ARMIES && defenders <= MAX_ARMIES)
+			return success[attackers*SIZE + defenders];
+		return approximateSuccess(attackers, defenders);
+	}
+
+	/**
+	 * Expected number of attackers that move into the region when it is captured.
+	 */
+	public static double expectedSurvivors(int attackers, int defenders)
+	{
+		if(attackers <= 0)
+			return 0;
+		if(defenders <= 0)
+			return attackers;
+		if(attackers <= MAX_ARMIES && defenders <= MAX_ARMIES)
+			return survivors[attackers*SIZE + defenders];
+		return Math.max(1, attackers - defenders * DEFENDER_KILL_CHANCE);
+	}
+
+	/**
+	 * Smallest number of attackers that captures a region with the given number of defenders with at least the
+	 * given chance, rounded up to a whole percent.
+	 */
+	public static int minimalAttackers(int defenders, double probability)
+	{
+		int percent = (int) Math.ceil(Math.min(1, Math.max(0, probability)) * PROBABILITY_STEPS - 1e-9);
+		if(defenders <= 0)
+			return 1;
+		if(defenders <= MAX_ARMIES)
+		{
+			int attackers = minimalAttackers[defenders*(PROBABILITY_STEPS+1) + percent];
+			if(attackers <= MAX_ARMIES)
+				return attackers;
+		}
+		double target = (double) percent / PROBABILITY_STEPS;
+		int attackers = Math.max(defenders, (int) (defenders / ATTACKER_KILL_CHANCE));
+		while(successProbability(attackers, defenders) < target && attackers < 10 * defenders)
+			attackers++;
+		return attackers;
+	}
+
+	//both kill counts as normal distributions, for battles too large for the tables
+	private static double approximateSuccess(int attackers, int defenders)
+	{
+		double killAll = 1 - normal(defenders - 0.5, attackers * ATTACKER_KILL_CHANCE,
+				attackers * ATTACKER_KILL_CHANCE * (1-ATTACKER_KILL_CHANCE));
+		double surviveOne = normal(attackers - 0.5, defenders * DEFENDER_KILL_CHANCE,
+				defenders * DEFENDER_KILL_CHANCE * (1-DEFENDER_KILL_CHANCE));
+		return killAll * surviveOne;
+	}
+
+	//P(X <= x) for a normal distribution
+	private static double normal(double x, double mean, double variance)
+	{
+		double z = (x - mean) / Math.sqrt(2 * variance);
+		return 0.5 * (1 + erf(z));
+	}
+
+	//Abramowitz and Stegun 7.1.26, error below 1.5e-7
+	private static double erf(double x)
+	{
+		double sign = x < 0 ? -1 : 1;
+		x = Math.abs(x);
+		double t = 1 / (1 + 0.3275911 * x);
+		double y = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t * Math.exp(-x * x);
+		return sign * y;
+	}
+
+}
@@ -0,0 +1,214 @@
+package core;
+
+import java.util.Arrays;
+
+import main.Map;
+import main.Region;
+import main.SuperRegion;
+
+/**
+ * Remembers what was seen of every region under the fog of war: the owner and armies when it was last visible,
+ * and in which round. From that it estimates where the opponent is, its income and its armies on regions we
+ * can't see. A map update costs constant time per region in it, the estimates are answered from counts per
+ * super region that are kept up to date along the way.
+ * Owners use the constants of MapSnapshot, UNKNOWN for regions that were never seen.
+ */
+public class BeliefTracker {
+
+	static final int BASE_INCOME = 5; //armies per round without super region rewards
+
+	private final int[] superRegionOf; //by region id, super region index, -1 if there is no such region
+	private final int[] lastOwner; //by region id
+	private final int[] lastArmies;
+	private final int[] lastSeenRound;
+
+	private final int[] superRegionSize;
+	private final int[] superRegionReward;
+	private final int[] opponentRegions; //per super region, regions last seen as the opponent's
+	private final int[] unseenRegions; //per super region, regions never seen
+
+	private int numRegions;
+	private int seenRegions;
+	private int totalOpponentRegions;
+
+	private int round;
+	private int[] myRegions = new int[16]; //ids of our regions in the last update
+	private int numMyRegions;
+	private int[] previousMyRegions = new int[16];
+	private int numPreviousMyRegions;
+
+	BeliefTracker(Map fullMap)
+	{
+		int maxId = 0;
+		for(Region region : fullMap.getRegions())
+			maxId = Math.max(maxId, region.getId());
+		superRegionOf = new int[maxId+1];
+		lastOwner = new int[maxId+1];
+		lastArmies = new int[maxId+1];
+		lastSeenRound = new int[maxId+1];
+		Arrays.fill(superRegionOf, -1);
+		Arrays.fill(lastOwner, MapSnapshot.UNKNOWN);
+
+		int numSuperRegions = fullMap.getSuperRegions().size();
+		superRegionSize = new int[numSuperRegions];
+		superRegionReward = new int[numSuperRegions];
+		opponentRegions = new int[numSuperRegions];
+		unseenRegions = new int[numSuperRegions];
+		int s = 0;
+		for(SuperRegion superRegion : fullMap.getSuperRegions())
+		{
+			superRegionReward[s] = superRegion.getArmiesReward();
+			for(Region region : superRegion.getSubRegions())
+			{
+				superRegionOf[region.getId()] = s;
+				superRegionSize[s]++;
+				unseenRegions[s]++;
+				numRegions++;
+			}
+			s++;
+		}
+	}
+
+	void beginUpdate(int round)
+	{
+		this.round = round;
+		int[] swap = previousMyRegions;
+		previousMyRegions = myRegions;
+		numPreviousMyRegions = numMyRegions;
+		myRegions = swap;
+		numMyRegions = 0;
+	}
+
+	void observe(int regionId, int owner, int armies)
+	{
+		if(regionId < 0 || regionId >= superRegionOf.length || superRegionOf[regionId] < 0)
+			return;
+		setOwner(regionId, owner);
+		lastArmies[regionId] = armies;
+		lastSeenRound[regionId] = round;
+		if(owner == MapSnapshot.ME)
+		{
+			if(numMyRegions == myRegions.length)
+				myRegions = Arrays.copyOf(myRegions, numMyRegions * 2);
+			myRegions[numMyRegions++] = regionId;
+		}
+	}
+
+	//only the opponent can take our regions, so ours that are no longer visible are the opponent's now
+	void endUpdate()
+	{
+		for(int i=0; i<numPreviousMyRegions; i++)
+		{
+			int regionId = previousMyRegions[i];
+			if(lastSeenRound[regionId] != round)
+			{
+				setOwner(regionId, MapSnapshot.OPPONENT);
+				lastArmies[regionId] = 1; //at least the army that took it
+				lastSeenRound[regionId] = round;
+			}
+		}
+	}
+
+	private void setOwner(int regionId, int owner)
+	{
+		int previous = lastOwner[regionId];
+		if(previous == owner)
+			return;
+		int s = superRegionOf[regionId];
+		if(previous == MapSnapshot.UNKNOWN)
+		{
+			unseenRegions[s]--;
+			seenRegions++;
+		}
+		else if(previous == MapSnapshot.OPPONENT)
+		{
+			opponentRegions[s]--;
+			totalOpponentRegions--;
+		}
+		if(owner == MapSnapshot.OPPONENT)
+		{
+			opponentRegions[s]++;
+			totalOpponentRegions++;
+		}
+		lastOwner[regionId] = owner;
+	}
+
+	//owner when the region was last seen, UNKNOWN if it never was
+	public int getLastOwner(int regionId) {
+		return lastOwner[regionId];
+	}
+
+	public int getLastArmies(int regionId) {
+		return lastArmies[regionId];
+	}
+
+	//rounds since the region was last seen, 0 if it is visible now, -1 if it was never seen
+	public int getAge(int regionId)
+	{
+		if(lastOwner[regionId] == MapSnapshot.UNKNOWN)
+			return -1;
+		return round - lastSeenRound[regionId];
+	}
+
+	//share of the regions we have seen that the opponent holds, our guess for regions we never saw
+	private double unseenOpponentShare()
+	{
+		if(seenRegions == 0)
+			return 0;
+		return (double) totalOpponentRegions / seenRegions;
+	}
+
+	/**
+	 * Chance that the opponent owns the region: its last seen owner, or for a region never seen the share of
+	 * the seen regions that the opponent holds.
+	 */
+	public double opponentProbability(int regionId)
+	{
+		int owner = lastOwner[regionId];
+		if(owner == MapSnapshot.UNKNOWN)
+			return unseenOpponentShare();
+		return owner == MapSnapshot.OPPONENT ? 1 : 0;
+	}
+
+	//expected number of regions the opponent owns
+	public double getEstimatedOpponentRegions()
+	{
+		return totalOpponentRegions + (numRegions - seenRegions) * unseenOpponentShare();
+	}
+
+	/**
+	 * Expected armies the opponent gets per round: the base income plus the reward of every super region,
+	 * weighted by the chance that the opponent owns all of it.
+	 */
+	public double getEstimatedOpponentIncome()
+	{
+		double share = unseenOpponentShare();
+		double income = BASE_INCOME;
+		for(int s=0; s<superRegionSize.length; s++)
+		{
+			boolean othersSeen = opponentRegions[s] + unseenRegions[s] < superRegionSize[s];
+			if(!othersSeen)
+				income += superRegionReward[s] * Math.pow(share, unseenRegions[s]);
+		}
+		return income;
+	}
+
+	/**
+	 * Expected opponent armies on a region: the armies last seen on it, plus its share of the opponent's income
+	 * for every round it has not been seen, weighted by the chance that the opponent owns it.
+	 */
+	public double getExpectedOpponentArmies(int regionId)
+	{
+		double probability = opponentProbability(regionId);
+		if(probability == 0)
+			return 0;
+		int age = getAge(regionId);
+		if(age == 0)
+			return lastArmies[regionId];
+		double armies = age < 0 ? 1 : lastArmies[regionId];
+		double rounds = age < 0 ? round : age;
+		armies += rounds * getEstimatedOpponentIncome() / Math.max(1, getEstimatedOpponentRegions());
+		return probability * armies;
+	}
+
+}
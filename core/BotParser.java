@@ -0,0 +1,360 @@
+// Copyright 2014 theaigames.com (developers@theaigames.com)
+
+//    Licensed under the Apache License, Version 2.0 (the "License");
+//    you may not use this file except in compliance with the License.
+//    You may obtain a copy of the License at
+
+//        http://www.apache.org/licenses/LICENSE-2.0
+
+//    Unless required by applicable law or agreed to in writing, software
+//    distributed under the License is distributed on an "AS IS" BASIS,
+//    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//    See the License for the specific language governing permissions and
+//    limitations under the License.
+//	
+//    For the full copyright and license information, please view the LICENSE
+//    file that was distributed with this source code.
+
+package core; 
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Scanner;
+
+import main.Region;
+import move.PlaceArmiesMove;
+import move.AttackTransferMove;
+
+public class BotParser {
+	
+	private static final byte[] PICK_STARTING_REGIONS = bytes("pick_starting_regions");
+	private static final byte[] GO = bytes("go");
+	private static final byte[] PLACE_ARMIES = bytes("place_armies");
+	private static final byte[] ATTACK_TRANSFER = bytes("attack/transfer");
+	private static final byte[] SETTINGS = bytes("settings");
+	private static final byte[] STARTING_ARMIES = bytes("starting_armies");
+	private static final byte[] SETUP_MAP = bytes("setup_map");
+	private static final byte[] SUPER_REGIONS = bytes("super_regions");
+	private static final byte[] REGIONS = bytes("regions");
+	private static final byte[] NEIGHBORS = bytes("neighbors");
+	private static final byte[] UPDATE_MAP = bytes("update_map");
+	
+	final Scanner scan;
+	
+	final ProtocolReader reader;
+	
+	final MoveWriter writer;
+	
+	final Bot bot;
+	
+	BotState currentState;
+	
+	private final ReplayRecorder recorder; //null when the game is not recorded
+	
+	private final CommandStats stats; //null when the commands are not timed
+	
+	private final String[] playerNames = { "neutral", "", "", "unknown" }; //names the reader can decode without making a String, by owner code
+	
+	public BotParser(Bot bot)
+	{
+		this(bot, System.in, false);
+	}
+	
+	/**
+	 * A parser for a bot that talks to the engine over System.out, set up by the system properties: records the
+	 * game when the bot is started with -DreplayLog=file, see ReplayRecorder, times the commands with
+	 * -DcommandStats=stderr or -DcommandStats=file, see CommandStats, and keeps the analysis of the maps with
+	 * -DtopologyCache=directory, see TopologyCache.
+	 * @param byteInput read the input with a ProtocolReader instead of a Scanner
+	 */
+	public BotParser(Bot bot, InputStream input, boolean byteInput)
+	{
+		this(bot, input, System.out, byteInput, ReplayRecorder.fromProperty(), CommandStats.fromProperty(), TopologyCache.fromProperty());
+	}
+	
+	/**
+	 * @param output where the responses are written, like System.out or the socket of a BotServer session
+	 * @param recorder records the input lines and responses, or null
+	 * @param stats times the commands and reports at the end of run(), or null
+	 * @param topologyCache reads and writes the analysis of the map, or null to compute it
+	 */
+	public BotParser(Bot bot, InputStream input, OutputStream output, boolean byteInput, ReplayRecorder recorder,
+			CommandStats stats, TopologyCache topologyCache)
+	{
+		this.scan = byteInput ? null : new Scanner(input);
+		this.reader = byteInput ? new ProtocolReader(input) : null;
+		this.recorder = recorder;
+		this.stats = stats;
+		this.writer = new MoveWriter(recorder == null ? output : recorder.tee(output), 1 << 13);
+		this.bot = bot;
+		this.currentState = new BotState();
+		currentState.setTopologyCache(topologyCache);
+	}
+	
+	private static byte[] bytes(String keyword)
+	{
+		byte[] bytes = new byte[keyword.length()];
+		for(int i=0; i<bytes.length; i++)
+			bytes[i] = (byte) keyword.charAt(i);
+		return bytes;
+	}
+	
+	public void run()
+	{
+		if(reader != null)
+		{
+			try {
+				runBytes();
+			}
+			catch(IOException e) {
+				System.err.println("Unable to read input " + e.getMessage());
+			}
+		}
+		else
+			runLines();
+		if(recorder != null)
+			recorder.close();
+		if(stats != null)
+			stats.report();
+	}
+	
+	private void runLines()
+	{
+		while(scan.hasNextLine())
+		{
+			String line = scan.nextLine().trim();
+			if(line.length() == 0) { continue; }
+			if(recorder != null)
+				recorder.input(line);
+			if(stats != null)
+				stats.begin();
+			int command = -1;
+			String[] parts = line.split(" ");
+			if(parts[0].equals("pick_starting_regions")) {
+				//pick which regions you want to start with
+				command = CommandStats.PICK_STARTING_REGIONS;
+				currentState.setPickableStartingRegions(parts);
+				pickStartingRegions(Long.valueOf(parts[1]));
+			} else if(parts.length == 3 && parts[0].equals("go")) {
+				//we need to do a move
+				if(parts[1].equals("place_armies")) {
+					command = CommandStats.PLACE_ARMIES;
+					placeArmies(Long.valueOf(parts[2]));
+				} else if(parts[1].equals("attack/transfer")) {
+					command = CommandStats.ATTACK_TRANSFER;
+					attackTransfer(Long.valueOf(parts[2]));
+				} else
+					printMoves();
+			} else if(parts.length == 3 && parts[0].equals("settings")) {
+				//update settings
+				command = CommandStats.SETTINGS;
+				currentState.updateSettings(parts[1], parts[2]);
+			} else if(parts[0].equals("setup_map")) {
+				//initial full map is given
+				command = CommandStats.SETUP_MAP;
+				currentState.setupMap(parts);
+			} else if(parts[0].equals("update_map")) {
+				//all visible regions are given
+				command = CommandStats.UPDATE_MAP;
+				currentState.updateMap(parts);
+			} else {
+				System.err.printf("Unable to parse line \"%s\"\n", line);
+			}
+			if(stats != null && command >= 0)
+				stats.end(command);
+		}
+	}
+	
+	//same commands as run(), decoded from the bytes of each line
+	private void runBytes() throws IOException
+	{
+		while(reader.nextLine())
+		{
+			if(reader.isEmpty()) { continue; }
+			if(recorder != null)
+				recorder.input(reader.lineString());
+			if(stats != null)
+				stats.begin();
+			int command = -1;
+			int tokens = reader.countTokens();
+			if(reader.nextIs(PICK_STARTING_REGIONS)) {
+				//pick which regions you want to start with
+				command = CommandStats.PICK_STARTING_REGIONS;
+				long timeOut = reader.nextLong();
+				while(reader.hasNext())
+				{
+					try {
+						currentState.addPickableStartingRegion(reader.nextInt());
+					}
+					catch(Exception e) {
+						System.err.println("Unable to parse pickable regions " + e.getMessage());
+					}
+				}
+				pickStartingRegions(timeOut);
+			} else if(tokens == 3 && reader.nextIs(GO)) {
+				//we need to do a move
+				if(reader.nextIs(PLACE_ARMIES)) {
+					command = CommandStats.PLACE_ARMIES;
+					placeArmies(reader.nextLong());
+				} else if(reader.nextIs(ATTACK_TRANSFER)) {
+					command = CommandStats.ATTACK_TRANSFER;
+					attackTransfer(reader.nextLong());
+				} else
+					printMoves();
+			} else if(tokens == 3 && reader.nextIs(SETTINGS)) {
+				//update settings
+				command = CommandStats.SETTINGS;
+				if(reader.nextIs(STARTING_ARMIES))
+					currentState.updateStartingArmies(reader.nextInt());
+				else
+				{
+					String key = reader.nextName(playerNames);
+					currentState.updateSettings(key, reader.rest());
+					playerNames[MapSnapshot.ME] = currentState.getMyPlayerName();
+					playerNames[MapSnapshot.OPPONENT] = currentState.getOpponentPlayerName();
+				}
+			} else if(reader.nextIs(SETUP_MAP)) {
+				//initial full map is given
+				command = CommandStats.SETUP_MAP;
+				setupMap();
+			} else if(reader.nextIs(UPDATE_MAP)) {
+				//all visible regions are given
+				command = CommandStats.UPDATE_MAP;
+				updateMap();
+			} else {
+				System.err.printf("Unable to parse line \"%s\"\n", reader.lineString());
+			}
+			if(stats != null && command >= 0)
+				stats.end(command);
+		}
+	}
+	
+	private void setupMap()
+	{
+		if(reader.nextIs(SUPER_REGIONS))
+		{
+			while(reader.hasNext())
+			{
+				try {
+					int superRegionId = reader.nextInt();
+					int reward = reader.nextInt();
+					currentState.addSuperRegion(superRegionId, reward);
+				}
+				catch(Exception e) {
+					System.err.println("Unable to parse SuperRegions");
+				}
+			}
+		}
+		else if(reader.nextIs(REGIONS))
+		{
+			while(reader.hasNext())
+			{
+				try {
+					int regionId = reader.nextInt();
+					int superRegionId = reader.nextInt();
+					currentState.addRegion(regionId, superRegionId);
+				}
+				catch(Exception e) {
+					System.err.println("Unable to parse Regions " + e.getMessage());
+				}
+			}
+		}
+		else if(reader.nextIs(NEIGHBORS))
+		{
+			while(reader.hasNext())
+			{
+				try {
+					int regionId = reader.nextInt();
+					do {
+						currentState.addNeighbor(regionId, reader.nextInt());
+					} while(reader.listContinues());
+				}
+				catch(Exception e) {
+					System.err.println("Unable to parse Neighbors " + e.getMessage());
+					skipList();
+				}
+			}
+			currentState.getTopology(); //the map is complete, analyze it now instead of during the first move
+		}
+	}
+	
+	//the rest of a comma separated list after an error in it, like BotState.setupMap skips the rest of the token
+	private void skipList()
+	{
+		while(reader.listContinues())
+		{
+			try {
+				reader.nextInt();
+			}
+			catch(NumberFormatException e) {
+			}
+		}
+	}
+	
+	private void updateMap()
+	{
+		currentState.beginMapUpdate();
+		while(reader.hasNext())
+		{
+			try {
+				int regionId = reader.nextInt();
+				String playerName = reader.nextName(playerNames);
+				int armies = reader.nextInt();
+				
+				int owner = ownerCode(playerName);
+				if(owner >= 0)
+					currentState.updateRegion(regionId, owner, armies);
+				else
+					currentState.updateRegion(regionId, playerName, armies);
+			}
+			catch(Exception e) {
+				System.err.println("Unable to parse Map Update " + e.getMessage());
+			}
+		}
+		currentState.endMapUpdate();
+	}
+	
+	//owner code of a name the reader decoded, -1 if it made a new String
+	private int ownerCode(String playerName)
+	{
+		for(int owner=0; owner<playerNames.length; owner++)
+			if(playerName == playerNames[owner])
+				return owner;
+		return -1;
+	}
+	
+	private void pickStartingRegions(long timeOut)
+	{
+		ArrayList<Region> preferredStartingRegions = bot.getPreferredStartingRegions(currentState, timeOut);
+		for(Region region : preferredStartingRegions)
+			writer.add(region);
+		
+		writer.endResponse();
+	}
+	
+	private void placeArmies(long timeOut)
+	{
+		ArrayList<PlaceArmiesMove> placeArmiesMoves = bot.getPlaceArmiesMoves(currentState, timeOut);
+		for(PlaceArmiesMove move : placeArmiesMoves)
+			writer.add(move);
+		printMoves();
+	}
+	
+	private void attackTransfer(long timeOut)
+	{
+		ArrayList<AttackTransferMove> attackTransferMoves = bot.getAttackTransferMoves(currentState, timeOut);
+		for(AttackTransferMove move : attackTransferMoves)
+			writer.add(move);
+		printMoves();
+	}
+	
+	private void printMoves()
+	{
+		if(writer.isEmpty())
+			writer.addText("No moves");
+		writer.endResponse();
+	}
+
+}
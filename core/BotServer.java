@@ -0,0 +1,164 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many games in one JVM: every connection to the server socket is a game session, which speaks the
+ * engine protocol over the socket like BotStarter.main does over stdin and stdout. Each session has its own
+ * Bot and BotState, and its own thread from a pool, so sessions only share the warmed up code and the
+ * TopologyCache.
+ * The options of BotStarter work per session: -DreplayLog=replay.log records session 3 to replay-session-3.log,
+ * -DcommandStats=stats.txt reports it to stats-session-3.txt (or to stderr under the line "session-3"), and
+ * -DtopologyCache=directory is shared by all sessions.
+ * A connection that comes while maxSessions games are running is closed right away.
+ */
+public class BotServer {
+
+	private final Class<? extends Bot> botClass;
+	private final ServerSocket serverSocket;
+	private final ThreadPoolExecutor sessions;
+	private final AtomicInteger threadCount = new AtomicInteger();
+	private final AtomicInteger sessionCount = new AtomicInteger();
+	private final TopologyCache topologyCache = TopologyCache.fromProperty();
+
+	public BotServer(Class<? extends Bot> botClass, int port, int maxSessions) throws IOException
+	{
+		this.botClass = botClass;
+		this.serverSocket = new ServerSocket(port);
+		//a thread per session, threads of ended sessions are kept a minute for the next ones
+		this.sessions = new ThreadPoolExecutor(0, maxSessions, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable session) {
+						Thread thread = new Thread(session, "session-thread-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	//number of games being played right now
+	public int getActiveSessions() {
+		return sessions.getActiveCount();
+	}
+
+	/**
+	 * Accepts connections until the server is closed.
+	 */
+	public void run()
+	{
+		while(!serverSocket.isClosed())
+		{
+			final Socket socket;
+			try {
+				socket = serverSocket.accept();
+			}
+			catch(IOException e) {
+				if(!serverSocket.isClosed())
+					System.err.println("Unable to accept connection " + e.getMessage());
+				continue;
+			}
+			try {
+				sessions.execute(new Runnable() {
+					@Override
+					public void run() {
+						playSession(socket);
+					}
+				});
+			}
+			catch(RejectedExecutionException e) {
+				System.err.println("Too many sessions, closing connection from " + socket.getRemoteSocketAddress());
+				close(socket);
+			}
+		}
+	}
+
+	private void playSession(Socket socket)
+	{
+		try {
+			socket.setTcpNoDelay(true); //every response is written and flushed at once
+			Bot bot = botClass.getDeclaredConstructor().newInstance();
+			String session = "session-" + sessionCount.incrementAndGet();
+			String statsDestination = System.getProperty("commandStats");
+			CommandStats stats = statsDestination == null ? null
+					: new CommandStats(statsDestination.equals("stderr") ? statsDestination : sessionFile(statsDestination, session), session);
+			ReplayRecorder recorder = ReplayRecorder.toFile(sessionFile(System.getProperty("replayLog"), session));
+			BotParser parser = new BotParser(bot, socket.getInputStream(), socket.getOutputStream(), true, recorder, stats, topologyCache);
+			parser.run();
+		}
+		catch(IOException e) {
+			System.err.println("Session failed " + e.getMessage());
+		}
+		catch(ReflectiveOperationException e) {
+			System.err.println("Unable to create bot " + e);
+		}
+		catch(RuntimeException e) {
+			System.err.println("Session failed " + e);
+		}
+		finally {
+			close(socket);
+		}
+	}
+
+	//the file with the session before its extension, null for no file
+	static String sessionFile(String file, String session)
+	{
+		if(file == null)
+			return null;
+		int dot = file.lastIndexOf('.');
+		if(dot <= file.lastIndexOf(File.separatorChar))
+			dot = file.length();
+		return file.substring(0, dot) + "-" + session + file.substring(dot);
+	}
+
+	private static void close(Socket socket)
+	{
+		try {
+			socket.close();
+		}
+		catch(IOException e) {
+			//nothing left to do with it
+		}
+	}
+
+	/**
+	 * Stops accepting connections, running sessions end when their engine closes the connection.
+	 */
+	public void close() throws IOException
+	{
+		serverSocket.close();
+		sessions.shutdown();
+	}
+
+	/**
+	 * Arguments: bot package (like borderBot) [port] [maxSessions]
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		if(args.length < 1)
+		{
+			System.err.println("usage: BotServer botPackage [port] [maxSessions]");
+			return;
+		}
+		Class<? extends Bot> botClass = Class.forName(args[0] + ".BotStarter").asSubclass(Bot.class);
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+		int maxSessions = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+		BotServer server = new BotServer(botClass, port, maxSessions);
+		System.err.println("Serving " + botClass.getName() + " on port " + server.getPort());
+		server.run();
+	}
+
+}
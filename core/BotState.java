@@ -0,0 +1,520 @@
+// Copyright 2014 theaigames.com (developers@theaigames.com)
+
+//    Licensed under the Apache License, Version 2.0 (the "License");
+//    you may not use this file except in compliance with the License.
+//    You may obtain a copy of the License at
+
+//        http://www.apache.org/licenses/LICENSE-2.0
+
+//    Unless required by applicable law or agreed to in writing, software
+//    distributed under the License is distributed on an "AS IS" BASIS,
+//    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//    See the License for the specific language governing permissions and
+//    limitations under the License.
+//	
+//    For the full copyright and license information, please view the LICENSE
+//    file that was distributed with this source code.
+
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import main.Map;
+import main.Region;
+import main.SuperRegion;
+
+public class BotState {
+	
+	private String myName = "";
+	private String opponentName = "";
+	private final String[] ownerNames = { "neutral", "", "", "unknown" }; //player names by owner code (MapSnapshot.NEUTRAL, ME, OPPONENT, UNKNOWN)
+	private int[] ownerById = new int[0]; //owner codes of the visible regions by region id, UNKNOWN for regions that are not visible
+	
+	private final Map fullMap = new Map(); //This map is known from the start, contains all the regions and how they are connected, doesn't change after initialization
+	private Region[] regionsById = new Region[0]; //regions of fullMap, indexed by id, grown while the map is set up
+	private SuperRegion[] superRegionsById = new SuperRegion[0]; //super regions of fullMap, indexed by id
+	private Map visibleMap; //This map represents everything the player can see, updated at the end of each round.
+	
+	private boolean incrementalMapUpdate = true; //update one persistent map in place instead of copying the full map every round
+	private Map knownMap; //copy of the full map whose regions are updated in place, visibleMap only lists its visible regions
+	private Region[] knownRegionsById; //regions of knownMap, indexed by id
+	private Region[] visibleRegionsById; //regions of visibleMap when it is copied every round, indexed by id
+	private BitSet visibleRegionIds = new BitSet(); //regions given in the previous map update
+	private BitSet updatedRegionIds = new BitSet(); //regions given in the current map update
+	
+	private MapSnapshot mapSnapshot; //primitive copy of the map, see getMapSnapshot()
+	private boolean mapSnapshotStale = true;
+	private RoundAnalysis roundAnalysis; //see getRoundAnalysis()
+	private Topology topology; //distances, articulation points and super region borders of the full map, see getTopology()
+	private TopologyCache topologyCache; //files of the topologies of earlier games, null to always compute it
+	private boolean roundAnalysisStale = true;
+	private BeliefTracker beliefs; //what was seen of the regions in earlier rounds, see getBeliefs()
+	
+	private ArrayList<Region> pickableStartingRegions; //2 randomly chosen regions from each superregion are given, which the bot can chose to start with
+	
+	private int startingArmies; //number of armies the player can place on map
+	
+	private int roundNumber;
+	
+	public BotState()
+	{
+		pickableStartingRegions = new ArrayList<Region>();
+		roundNumber = 0;
+	}
+	
+	public void updateSettings(String key, String value)
+	{
+		if(key.equals("your_bot")) //bot's own name
+			myName = ownerNames[MapSnapshot.ME] = value;
+		else if(key.equals("opponent_bot")) //opponent's name
+			opponentName = ownerNames[MapSnapshot.OPPONENT] = value;
+		else if(key.equals("starting_armies")) 
+			updateStartingArmies(Integer.parseInt(value));
+	}
+	
+	public void updateStartingArmies(int armies)
+	{
+		startingArmies = armies;
+		roundNumber++; //next round
+	}
+	
+	//initial map is given to the bot with all the information except for player and armies info
+	public void setupMap(String[] mapInput)
+	{
+		int i, regionId, superRegionId, reward;
+		
+		if(mapInput[1].equals("super_regions"))
+		{
+			for(i=2; i<mapInput.length; i++)
+			{
+				try {
+					superRegionId = Integer.parseInt(mapInput[i]);
+					i++;
+					reward = Integer.parseInt(mapInput[i]);
+					addSuperRegion(superRegionId, reward);
+				}
+				catch(Exception e) {
+					System.err.println("Unable to parse SuperRegions");
+				}
+			}
+		}
+		else if(mapInput[1].equals("regions"))
+		{
+			for(i=2; i<mapInput.length; i++)
+			{
+				try {
+					regionId = Integer.parseInt(mapInput[i]);
+					i++;
+					superRegionId = Integer.parseInt(mapInput[i]);
+					addRegion(regionId, superRegionId);
+				}
+				catch(Exception e) {
+					System.err.println("Unable to parse Regions " + e.getMessage());
+				}
+			}
+		}
+		else if(mapInput[1].equals("neighbors"))
+		{
+			for(i=2; i<mapInput.length; i++)
+			{
+				try {
+					regionId = Integer.parseInt(mapInput[i]);
+					i++;
+					String[] neighborIds = mapInput[i].split(",");
+					for(int j=0; j<neighborIds.length; j++)
+						addNeighbor(regionId, Integer.parseInt(neighborIds[j]));
+				}
+				catch(Exception e) {
+					System.err.println("Unable to parse Neighbors " + e.getMessage());
+				}
+			}
+			getTopology(); //the map is complete, analyze it now instead of during the first move
+		}
+	}
+	
+	//the maps check for a duplicate id by searching their lists, the id-indexed arrays make adding constant time
+	public void addSuperRegion(int superRegionId, int reward)
+	{
+		if(getSuperRegion(superRegionId) != null)
+			throw new IllegalArgumentException("super region " + superRegionId + " already exists");
+		SuperRegion superRegion = new SuperRegion(superRegionId, reward);
+		superRegionsById = withIndex(superRegionsById, superRegionId);
+		superRegionsById[superRegionId] = superRegion;
+		fullMap.getSuperRegions().add(superRegion);
+		mapSnapshot = null;
+		beliefs = null;
+	}
+	
+	public void addRegion(int regionId, int superRegionId)
+	{
+		SuperRegion superRegion = getSuperRegion(superRegionId);
+		if(superRegion == null)
+			throw new IllegalArgumentException("unknown super region " + superRegionId);
+		if(getRegion(regionId) != null)
+			throw new IllegalArgumentException("region " + regionId + " already exists");
+		Region region = new Region(regionId, superRegion);
+		regionsById = withIndex(regionsById, regionId);
+		regionsById[regionId] = region;
+		fullMap.getRegions().add(region);
+		mapSnapshot = null;
+		beliefs = null;
+	}
+	
+	public void addNeighbor(int regionId, int neighborId)
+	{
+		Region region = getRegion(regionId);
+		Region neighbor = getRegion(neighborId);
+		if(region == null || neighbor == null)
+			throw new IllegalArgumentException("unknown region " + (region == null ? regionId : neighborId));
+		region.addNeighbor(neighbor);
+		mapSnapshot = null;
+		beliefs = null;
+	}
+	
+	//the array, grown if it is too short to hold the id
+	private static <T> T[] withIndex(T[] byId, int id)
+	{
+		if(id < 0)
+			throw new IllegalArgumentException("negative id " + id);
+		if(id < byId.length)
+			return byId;
+		return Arrays.copyOf(byId, Math.max(id+1, byId.length*2));
+	}
+	
+	private static <T> T byId(T[] byId, int id)
+	{
+		if(id < 0 || id >= byId.length)
+			return null;
+		return byId[id];
+	}
+	
+	//regions from wich a player is able to pick his preferred starting regions
+	public void setPickableStartingRegions(String[] mapInput)
+	{
+		for(int i=2; i<mapInput.length; i++)
+		{
+			int regionId;
+			try {
+				regionId = Integer.parseInt(mapInput[i]);
+				addPickableStartingRegion(regionId);
+			}
+			catch(Exception e) {
+				System.err.println("Unable to parse pickable regions " + e.getMessage());
+			}
+		}
+	}
+	
+	public void addPickableStartingRegion(int regionId)
+	{
+		Region pickableRegion = getRegion(regionId);
+		if(pickableRegion == null)
+			throw new IllegalArgumentException("unknown region " + regionId);
+		pickableStartingRegions.add(pickableRegion);
+	}
+	
+	//visible regions are given to the bot with player and armies info
+	public void updateMap(String[] mapInput)
+	{
+		beginMapUpdate();
+		for(int i=1; i<mapInput.length; i++)
+		{
+			try {
+				int regionId = Integer.parseInt(mapInput[i]);
+				String playerName = mapInput[i+1];
+				int armies = Integer.parseInt(mapInput[i+2]);
+				
+				updateRegion(regionId, playerName, armies);
+				i += 2;
+			}
+			catch(Exception e) {
+				System.err.println("Unable to parse Map Update " + e.getMessage());
+			}
+		}
+		endMapUpdate();
+	}
+	
+	//a map update is given region by region between beginMapUpdate and endMapUpdate
+	public void beginMapUpdate()
+	{
+		if(incrementalMapUpdate)
+		{
+			if(knownMap == null)
+				createKnownMap();
+			updatedRegionIds.clear();
+		}
+		else
+		{
+			if(visibleRegionsById == null || visibleRegionsById.length != regionsById.length)
+				visibleRegionsById = new Region[regionsById.length];
+			visibleMap = copyFullMap(visibleRegionsById);
+		}
+		if(ownerById.length != regionsById.length)
+		{
+			ownerById = new int[regionsById.length];
+			Arrays.fill(ownerById, MapSnapshot.UNKNOWN);
+		}
+		else if(!incrementalMapUpdate)
+			Arrays.fill(ownerById, MapSnapshot.UNKNOWN);
+		if(beliefs == null)
+			beliefs = new BeliefTracker(fullMap);
+		beliefs.beginUpdate(roundNumber);
+	}
+	
+	public void updateRegion(int regionId, String playerName, int armies)
+	{
+		updateRegion(regionId, ownerCode(playerName), playerName, armies);
+	}
+	
+	/**
+	 * Updates the region with an owner code resolved by the caller, the region gets the player name of the code.
+	 * @param owner MapSnapshot.NEUTRAL, ME, OPPONENT or UNKNOWN
+	 */
+	public void updateRegion(int regionId, int owner, int armies)
+	{
+		updateRegion(regionId, owner, ownerNames[owner], armies);
+	}
+	
+	private void updateRegion(int regionId, int owner, String playerName, int armies)
+	{
+		Region region;
+		if(incrementalMapUpdate)
+			region = getKnownRegion(regionId);
+		else
+			region = byId(visibleRegionsById, regionId);
+		if(region == null)
+			throw new IllegalArgumentException("unknown region " + regionId);
+		
+		region.setPlayerName(playerName);
+		region.setArmies(armies);
+		ownerById[regionId] = owner;
+		if(owner == MapSnapshot.UNKNOWN)
+			return;
+		if(incrementalMapUpdate)
+			updatedRegionIds.set(regionId);
+		beliefs.observe(regionId, owner, armies);
+	}
+	
+	//owner code of a player name of the engine, names of no player are unknown
+	public int ownerCode(String playerName)
+	{
+		for(int owner=0; owner<ownerNames.length; owner++)
+			if(ownerNames[owner].equals(playerName))
+				return owner;
+		return MapSnapshot.UNKNOWN;
+	}
+	
+	public void endMapUpdate()
+	{
+		if(incrementalMapUpdate)
+			updateVisibleRegions();
+		else
+			removeUnknownRegions();
+		beliefs.endUpdate();
+		mapSnapshotStale = true;
+		roundAnalysisStale = true;
+	}
+	
+	//visible map is a copy of the full map, remove regions which are unknown.
+	private void removeUnknownRegions()
+	{
+		Iterator<Region> regions = visibleMap.getRegions().iterator();
+		while(regions.hasNext())
+			if(ownerById[regions.next().getId()] == MapSnapshot.UNKNOWN)
+				regions.remove();
+	}
+	
+	//visible map lists the updated regions of the persistent map, it is only rebuilt when visibility changed
+	private void updateVisibleRegions()
+	{
+		//regions that are not visible anymore go back to the state they have in the full map
+		for(int id = visibleRegionIds.nextSetBit(0); id >= 0; id = visibleRegionIds.nextSetBit(id+1))
+		{
+			if(!updatedRegionIds.get(id))
+			{
+				Region region = knownRegionsById[id];
+				region.setPlayerName("unknown");
+				region.setArmies(0);
+				ownerById[id] = MapSnapshot.UNKNOWN;
+			}
+		}
+		
+		if(!updatedRegionIds.equals(visibleRegionIds))
+		{
+			//keep the order of the full map, like a copy would
+			LinkedList<Region> visible = visibleMap.getRegions();
+			visible.clear();
+			for(Region region : knownMap.getRegions())
+				if(updatedRegionIds.get(region.getId()))
+					visible.add(region);
+		}
+		
+		BitSet previous = visibleRegionIds;
+		visibleRegionIds = updatedRegionIds;
+		updatedRegionIds = previous;
+	}
+	
+	private void createKnownMap()
+	{
+		knownRegionsById = new Region[regionsById.length];
+		knownMap = copyFullMap(knownRegionsById);
+		visibleMap = new Map(new LinkedList<Region>(), knownMap.getSuperRegions());
+		visibleRegionIds.clear();
+	}
+	
+	private Region getKnownRegion(int regionId)
+	{
+		return byId(knownRegionsById, regionId);
+	}
+	
+	//same copy as Map.getMapCopy, with the regions looked up by id instead of searched, copies are put in copiesById
+	private Map copyFullMap(Region[] copiesById)
+	{
+		SuperRegion[] superRegionCopies = new SuperRegion[superRegionsById.length];
+		Map copy = new Map();
+		for(SuperRegion superRegion : fullMap.getSuperRegions())
+		{
+			SuperRegion superRegionCopy = new SuperRegion(superRegion.getId(), superRegion.getArmiesReward());
+			superRegionCopies[superRegion.getId()] = superRegionCopy;
+			copy.getSuperRegions().add(superRegionCopy);
+		}
+		for(Region region : fullMap.getRegions())
+		{
+			Region regionCopy = new Region(region.getId(), superRegionCopies[region.getSuperRegion().getId()], region.getPlayerName(), region.getArmies());
+			copiesById[region.getId()] = regionCopy;
+			copy.getRegions().add(regionCopy);
+		}
+		for(Region region : fullMap.getRegions())
+		{
+			Region regionCopy = copiesById[region.getId()];
+			for(Region neighbor : region.getNeighbors())
+				regionCopy.addNeighbor(copiesById[neighbor.getId()]);
+		}
+		return copy;
+	}
+	
+	//switches between updating one persistent visible map (default) and copying the full map on every update
+	public void setIncrementalMapUpdate(boolean incremental)
+	{
+		if(incremental && !incrementalMapUpdate)
+			knownMap = null;
+		incrementalMapUpdate = incremental;
+	}
+	
+	public boolean isIncrementalMapUpdate(){
+		return incrementalMapUpdate;
+	}
+	
+	public String getMyPlayerName(){
+		return myName;
+	}
+	
+	public String getOpponentPlayerName(){
+		return opponentName;
+	}
+	
+	public int getStartingArmies(){
+		return startingArmies;
+	}
+	
+	public int getRoundNumber(){
+		return roundNumber;
+	}
+	
+	public Map getVisibleMap(){
+		return visibleMap;
+	}
+	
+	public Map getFullMap(){
+		return fullMap;
+	}
+	
+	//region of the full map with the id, null if there is none
+	public Region getRegion(int regionId){
+		return byId(regionsById, regionId);
+	}
+	
+	public SuperRegion getSuperRegion(int superRegionId){
+		return byId(superRegionsById, superRegionId);
+	}
+	
+	//owner code of the region in the last map update, MapSnapshot.UNKNOWN if it isn't visible
+	public int getOwner(int regionId)
+	{
+		if(regionId < 0 || regionId >= ownerById.length)
+			return MapSnapshot.UNKNOWN;
+		return ownerById[regionId];
+	}
+	
+	public int getOwner(Region region){
+		return getOwner(region.getId());
+	}
+	
+	public boolean isMine(Region region){
+		return getOwner(region.getId()) == MapSnapshot.ME;
+	}
+	
+	//the map as primitive arrays, owners and armies are refreshed on the first call after a map update
+	public MapSnapshot getMapSnapshot()
+	{
+		if(mapSnapshot == null)
+		{
+			mapSnapshot = new MapSnapshot(fullMap);
+			mapSnapshotStale = true;
+		}
+		if(mapSnapshotStale)
+		{
+			mapSnapshot.refresh(fullMap, visibleMap, ownerById);
+			mapSnapshotStale = false;
+		}
+		return mapSnapshot;
+	}
+	
+	//facts about the graph of the full map, computed on the first call after the map was set up
+	public Topology getTopology()
+	{
+		MapSnapshot snapshot = getMapSnapshot();
+		if(topology == null || topology.getMapSnapshot() != snapshot)
+			topology = topologyCache == null ? new Topology(snapshot) : topologyCache.get(snapshot);
+		return topology;
+	}
+	
+	//reads and writes the topology of the maps from and to files, null to compute it every game
+	public void setTopologyCache(TopologyCache cache)
+	{
+		topologyCache = cache;
+	}
+	
+	//ownership counts, borders and hostile neighbors of the visible map, computed on the first call after a map update
+	public RoundAnalysis getRoundAnalysis()
+	{
+		MapSnapshot snapshot = getMapSnapshot();
+		if(roundAnalysis == null || roundAnalysis.getMapSnapshot() != snapshot)
+		{
+			roundAnalysis = new RoundAnalysis(snapshot);
+			roundAnalysisStale = true;
+		}
+		if(roundAnalysisStale)
+		{
+			roundAnalysis.refresh(visibleMap);
+			roundAnalysisStale = false;
+		}
+		return roundAnalysis;
+	}
+	
+	//last seen owners and armies of all regions and estimates of the opponent, kept up to date by the map updates
+	public BeliefTracker getBeliefs()
+	{
+		if(beliefs == null)
+			beliefs = new BeliefTracker(fullMap);
+		return beliefs;
+	}
+	
+	public ArrayList<Region> getPickableStartingRegions(){
+		return pickableStartingRegions;
+	}
+
+}
@@ -0,0 +1,160 @@
+package core;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Times every command BotParser handles, in a LatencyHistogram per kind of command, and counts the bytes the
+ * parser thread allocates and the garbage collections while it is handled. The report is written at the end of
+ * the game to stderr or a file, never to stdout, which the engine reads.
+ * Allocations of other threads, like the search threads of botMcts, are not counted; collections are counted
+ * for the whole JVM.
+ */
+public class CommandStats {
+
+	public static final int PICK_STARTING_REGIONS = 0;
+	public static final int PLACE_ARMIES = 1;
+	public static final int ATTACK_TRANSFER = 2;
+	public static final int UPDATE_MAP = 3;
+	public static final int SETUP_MAP = 4;
+	public static final int SETTINGS = 5;
+	private static final String[] NAMES = {"pick_starting_regions", "go place_armies", "go attack/transfer", "update_map", "setup_map", "settings"};
+
+	private static final com.sun.management.ThreadMXBean threads = threadBean();
+	private static final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	private final String destination; //"stderr" or a file
+	private final String title; //line above the report, null for none
+	private final LatencyHistogram[] latency = new LatencyHistogram[NAMES.length];
+	private final long[] allocated = new long[NAMES.length];
+	private final long[] collections = new long[NAMES.length];
+	private final long[] collectionMillis = new long[NAMES.length];
+
+	//at the start of the command being handled
+	private long start;
+	private long startAllocated;
+	private long startCollections;
+	private long startCollectionMillis;
+
+	/**
+	 * @param destination "stderr" or the file to append the report to
+	 */
+	public CommandStats(String destination)
+	{
+		this(destination, null);
+	}
+
+	/**
+	 * @param title written above the report, like the session of a BotServer whose reports share stderr
+	 */
+	public CommandStats(String destination, String title)
+	{
+		this.destination = destination;
+		this.title = title;
+		for(int c=0; c<NAMES.length; c++)
+			latency[c] = new LatencyHistogram();
+	}
+
+	/**
+	 * Stats for the destination given with -DcommandStats=stderr or -DcommandStats=file, or null when there is none.
+	 */
+	public static CommandStats fromProperty()
+	{
+		String destination = System.getProperty("commandStats");
+		return destination == null ? null : new CommandStats(destination);
+	}
+
+	//the thread allocation counters of HotSpot, null on other JVMs
+	private static com.sun.management.ThreadMXBean threadBean()
+	{
+		try {
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+		}
+		catch(LinkageError e) {
+			return null;
+		}
+		catch(ClassCastException e) {
+			return null;
+		}
+	}
+
+	void begin()
+	{
+		startCollections = 0;
+		startCollectionMillis = 0;
+		for(GarbageCollectorMXBean collector : collectors)
+		{
+			startCollections += Math.max(0, collector.getCollectionCount());
+			startCollectionMillis += Math.max(0, collector.getCollectionTime());
+		}
+		startAllocated = threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		start = System.nanoTime();
+	}
+
+	void end(int command)
+	{
+		long end = System.nanoTime();
+		latency[command].record(end - start);
+		if(threads != null)
+			allocated[command] += threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - startAllocated;
+		for(GarbageCollectorMXBean collector : collectors)
+		{
+			collections[command] += Math.max(0, collector.getCollectionCount());
+			collectionMillis[command] += Math.max(0, collector.getCollectionTime());
+		}
+		collections[command] -= startCollections;
+		collectionMillis[command] -= startCollectionMillis;
+	}
+
+	public LatencyHistogram getLatency(int command) {
+		return latency[command];
+	}
+
+	public void print(PrintStream out)
+	{
+		if(title != null)
+			out.println(title);
+		out.printf("%-22s %7s %10s %10s %10s %10s %10s %10s %12s %5s %7s%n", "command", "count", "mean us", "p50 us",
+				"p90 us", "p99 us", "p99.9 us", "max us", "alloc B/op", "gcs", "gc ms");
+		for(int c=0; c<NAMES.length; c++)
+		{
+			LatencyHistogram histogram = latency[c];
+			if(histogram.getCount() == 0)
+				continue;
+			out.printf("%-22s %7d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %12s %5d %7d%n", NAMES[c], histogram.getCount(),
+					histogram.getMean() / 1e3, histogram.getPercentile(0.5) / 1e3, histogram.getPercentile(0.9) / 1e3,
+					histogram.getPercentile(0.99) / 1e3, histogram.getPercentile(0.999) / 1e3, histogram.getMax() / 1e3,
+					threads == null ? "-" : String.valueOf(allocated[c] / histogram.getCount()), collections[c], collectionMillis[c]);
+		}
+	}
+
+	//writes the report to its destination, called by BotParser at the end of the game
+	void report()
+	{
+		if(destination.equals("stderr"))
+		{
+			synchronized(System.err) { //the reports of games ending at the same time don't mix their lines
+				print(System.err);
+			}
+			return;
+		}
+		PrintStream out = null;
+		try {
+			out = new PrintStream(new FileOutputStream(destination, true));
+			print(out);
+		}
+		catch(IOException e) {
+			System.err.println("Unable to write command stats " + e.getMessage());
+		}
+		finally {
+			if(out != null)
+				out.close();
+		}
+	}
+
+}
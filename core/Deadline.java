@@ -0,0 +1,29 @@
+package core;
+
+/**
+ * The moment a response has to be ready: the timeOut the engine gives for a move minus a safety margin
+ * for writing the response and for differences between our clock and the engine's.
+ */
+public class Deadline {
+
+	static final long MIN_MARGIN = 50; //milliseconds
+	static final double MARGIN_FRACTION = 0.1; //of the timeOut
+
+	private final long end; //System.nanoTime()
+
+	public Deadline(Long timeOut)
+	{
+		long budget = timeOut == null ? 0 : timeOut;
+		long margin = Math.max(MIN_MARGIN, (long) (budget * MARGIN_FRACTION));
+		this.end = System.nanoTime() + Math.max(0, budget - margin) * 1000000L;
+	}
+
+	public boolean passed(){
+		return System.nanoTime() >= end;
+	}
+
+	public long remainingMillis(){
+		return Math.max(0, (end - System.nanoTime()) / 1000000L);
+	}
+
+}
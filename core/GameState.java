@@ -0,0 +1,222 @@
+package core;
+
+import java.util.Random;
+
+/**
+ * A position of the game for search-based strategies, which play many rounds ahead. Owners and armies are kept
+ * in primitive arrays, the topology is the MapSnapshot's and is shared by all copies, so a copy is a few
+ * System.arraycopy calls. The regions and armies of every player, also per super region, are counted along the
+ * way, which makes income() cheap.
+ * Every change of an owner or armies is written to an undo log: a search can take a mark(), play its moves
+ * and go back to the position of the mark with undo(), instead of copying the position.
+ * Regions are region indices of the MapSnapshot, owners its constants.
+ */
+public class GameState {
+
+	public static final int BASE_INCOME = 5; //armies per round without super region rewards
+
+	private static final int PLAYERS = 4; //NEUTRAL, ME, OPPONENT and UNKNOWN
+
+	private final MapSnapshot map;
+	private final int[] owner;
+	private final int[] armies;
+	private final int[] regionCount; //by owner
+	private final int[] armyCount; //by owner
+	private final int[] owned; //regions of each owner per super region, owner * numSuperRegions + super region index
+	private final int[] movable; //armies that can still attack or transfer this round, not part of the undo log
+
+	private int[] undoLog = new int[3*16]; //region, owner and armies before each change
+	private int undoSize;
+
+	/**
+	 * The position of the last map update of the snapshot, regions we can't see are UNKNOWN.
+	 */
+	public GameState(MapSnapshot map)
+	{
+		this.map = map;
+		owner = new int[map.numRegions];
+		armies = new int[map.numRegions];
+		regionCount = new int[PLAYERS];
+		armyCount = new int[PLAYERS];
+		owned = new int[PLAYERS * map.numSuperRegions];
+		movable = new int[map.numRegions];
+		for(int r=0; r<map.numRegions; r++)
+		{
+			owner[r] = map.owner[r];
+			armies[r] = map.armies[r];
+			count(r, 1);
+		}
+	}
+
+	private GameState(GameState other)
+	{
+		map = other.map;
+		owner = other.owner.clone();
+		armies = other.armies.clone();
+		regionCount = other.regionCount.clone();
+		armyCount = other.armyCount.clone();
+		owned = other.owned.clone();
+		movable = new int[map.numRegions];
+	}
+
+	//a new position like this one, with an empty undo log
+	public GameState copy()
+	{
+		return new GameState(this);
+	}
+
+	//makes this position like the other one, of the same map, and empties the undo log
+	public void copyFrom(GameState other)
+	{
+		System.arraycopy(other.owner, 0, owner, 0, owner.length);
+		System.arraycopy(other.armies, 0, armies, 0, armies.length);
+		System.arraycopy(other.regionCount, 0, regionCount, 0, PLAYERS);
+		System.arraycopy(other.armyCount, 0, armyCount, 0, PLAYERS);
+		System.arraycopy(other.owned, 0, owned, 0, owned.length);
+		undoSize = 0;
+	}
+
+	public MapSnapshot getMap() {
+		return map;
+	}
+
+	public int getOwner(int r) {
+		return owner[r];
+	}
+
+	public int getArmies(int r) {
+		return armies[r];
+	}
+
+	public void set(int r, int newOwner, int newArmies)
+	{
+		log(r);
+		count(r, -1);
+		owner[r] = newOwner;
+		armies[r] = newArmies;
+		count(r, 1);
+	}
+
+	public void addArmies(int r, int added)
+	{
+		log(r);
+		armies[r] += added;
+		armyCount[owner[r]] += added;
+	}
+
+	private void count(int r, int sign)
+	{
+		regionCount[owner[r]] += sign;
+		armyCount[owner[r]] += sign * armies[r];
+		owned[owner[r] * map.numSuperRegions + map.superRegion[r]] += sign;
+	}
+
+	private void log(int r)
+	{
+		if(undoSize + 3 > undoLog.length)
+		{
+			int[] larger = new int[undoLog.length * 2];
+			System.arraycopy(undoLog, 0, larger, 0, undoSize);
+			undoLog = larger;
+		}
+		undoLog[undoSize++] = r;
+		undoLog[undoSize++] = owner[r];
+		undoLog[undoSize++] = armies[r];
+	}
+
+	//the current position, to go back to with undo
+	public int mark() {
+		return undoSize;
+	}
+
+	//takes back all changes since the mark, in reverse order
+	public void undo(int mark)
+	{
+		while(undoSize > mark)
+		{
+			int oldArmies = undoLog[--undoSize];
+			int oldOwner = undoLog[--undoSize];
+			int r = undoLog[--undoSize];
+			count(r, -1);
+			owner[r] = oldOwner;
+			armies[r] = oldArmies;
+			count(r, 1);
+		}
+	}
+
+	public int countRegions(int player) {
+		return regionCount[player];
+	}
+
+	public int countArmies(int player) {
+		return armyCount[player];
+	}
+
+	//regions of the player in the super region with the given index
+	public int countOwned(int player, int superRegion) {
+		return owned[player * map.numSuperRegions + superRegion];
+	}
+
+	//armies the player gets at the start of a round
+	public int income(int player)
+	{
+		int income = BASE_INCOME;
+		int offset = player * map.numSuperRegions;
+		for(int s=0; s<map.numSuperRegions; s++)
+			if(owned[offset + s] == map.superRegionSize[s])
+				income += map.superRegionReward[s];
+		return income;
+	}
+
+	//only armies that are there before the moves start can move
+	public void beginMoves()
+	{
+		System.arraycopy(armies, 0, movable, 0, armies.length);
+	}
+
+	/**
+	 * Executes an attack or transfer the way the engine does: it is skipped when the player no longer owns the
+	 * region it starts from, and moves at most the armies that were there at beginMoves, minus one.
+	 * Battles are played with the kill chances of BattleOdds.
+	 */
+	public void attackTransfer(int player, int from, int to, int requested, Random random)
+	{
+		if(owner[from] != player)
+			return;
+		int count = Math.min(requested, Math.min(movable[from], armies[from] - 1));
+		if(count <= 0)
+			return;
+		movable[from] -= count;
+		if(owner[to] == player)
+		{
+			addArmies(from, -count);
+			addArmies(to, count);
+			return;
+		}
+		int defenders = armies[to];
+		int defendersKilled = kills(count, BattleOdds.ATTACKER_KILL_CHANCE, random);
+		int attackersKilled = kills(defenders, BattleOdds.DEFENDER_KILL_CHANCE, random);
+		if(defendersKilled >= defenders && attackersKilled < count)
+		{
+			//captured, the surviving attackers move in and can't move again this round
+			addArmies(from, -count);
+			set(to, player, count - attackersKilled);
+			movable[to] = 0;
+		}
+		else
+		{
+			addArmies(from, -Math.min(attackersKilled, count));
+			set(to, owner[to], Math.max(1, defenders - defendersKilled));
+		}
+	}
+
+	private static int kills(int armies, double killChance, Random random)
+	{
+		int kills = 0;
+		for(int i=0; i<armies; i++)
+			if(random.nextDouble() < killChance)
+				kills++;
+		return kills;
+	}
+
+}
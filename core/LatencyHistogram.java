@@ -0,0 +1,77 @@
+package core;
+
+/**
+ * Counts of recorded nanosecond times in buckets of logarithmic size, like an HDR histogram: values below
+ * 2^SUB_BITS have a bucket each, above that every power of two is split in 2^(SUB_BITS-1) buckets, so a
+ * percentile is off by at most 1/2^(SUB_BITS-1) of its value. Recording is an increment in a fixed array.
+ */
+public class LatencyHistogram {
+
+	static final int SUB_BITS = 5; //about 6% precision
+	private static final int SUB_BUCKETS = 1 << (SUB_BITS-1);
+	private static final int BUCKETS = (1 << SUB_BITS) + (64 - SUB_BITS) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count;
+	private long sum;
+	private long max;
+
+	public void record(long nanos)
+	{
+		if(nanos < 0)
+			nanos = 0;
+		counts[index(nanos)]++;
+		count++;
+		sum += nanos;
+		max = Math.max(max, nanos);
+	}
+
+	static int index(long value)
+	{
+		if(value < (1 << SUB_BITS))
+			return (int) value;
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return (1 << SUB_BITS) + (shift-1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	//highest value of the bucket
+	static long highestValue(int index)
+	{
+		if(index < (1 << SUB_BITS))
+			return index;
+		int shift = (index - (1 << SUB_BITS)) / SUB_BUCKETS + 1;
+		long sub = (index - (1 << SUB_BITS)) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((sub + 1) << shift) - 1;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * The value that the given fraction of the recorded values is at or below, rounded up to its bucket.
+	 */
+	public long getPercentile(double fraction)
+	{
+		if(count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for(int i=0; i<BUCKETS; i++)
+		{
+			seen += counts[i];
+			if(seen >= rank)
+				return Math.min(highestValue(i), max);
+		}
+		return max;
+	}
+
+}
@@ -0,0 +1,192 @@
+package core;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import main.Map;
+import main.Region;
+import main.SuperRegion;
+
+/**
+ * The map as primitive arrays indexed by region index (the position of the region in the full map),
+ * so strategies can look at borders, neighbors and armies without Region objects, String compares or
+ * allocations. The topology is built once from the full map, owners and armies are refreshed from the
+ * visible map after every map update.
+ */
+public class MapSnapshot {
+
+	public static final int NEUTRAL = 0;
+	public static final int ME = 1;
+	public static final int OPPONENT = 2;
+	public static final int UNKNOWN = 3;
+
+	//topology, doesn't change after setup_map
+	public final int numRegions;
+	public final int numSuperRegions;
+	public final int[] regionId; //region index -> region id
+	public final int[] superRegion; //region index -> super region index
+	public final int[] neighborStart; //neighbors of region r are neighbors[neighborStart[r]] until neighbors[neighborStart[r+1]]
+	public final int[] neighbors; //region indices
+	public final int[] superRegionId; //super region index -> super region id
+	public final int[] superRegionReward;
+	public final int[] superRegionSize;
+	private final int[] indexById; //region id -> region index, -1 if there is no such region
+	private final int[] superRegionIndexById;
+
+	//state of the last map update
+	public final int[] owner;
+	public final int[] armies;
+	private final Region[] regions; //region objects of the visible map, or of the full map for regions that are not visible
+
+	MapSnapshot(Map fullMap)
+	{
+		LinkedList<Region> fullRegions = fullMap.getRegions();
+		LinkedList<SuperRegion> superRegions = fullMap.getSuperRegions();
+		numRegions = fullRegions.size();
+		numSuperRegions = superRegions.size();
+
+		superRegionId = new int[numSuperRegions];
+		superRegionReward = new int[numSuperRegions];
+		superRegionSize = new int[numSuperRegions];
+		int maxSuperRegionId = 0;
+		for(SuperRegion sr : superRegions)
+			maxSuperRegionId = Math.max(maxSuperRegionId, sr.getId());
+		superRegionIndexById = new int[maxSuperRegionId+1];
+		Arrays.fill(superRegionIndexById, -1);
+		int s = 0;
+		for(SuperRegion sr : superRegions)
+		{
+			superRegionId[s] = sr.getId();
+			superRegionReward[s] = sr.getArmiesReward();
+			superRegionIndexById[sr.getId()] = s;
+			s++;
+		}
+
+		regionId = new int[numRegions];
+		superRegion = new int[numRegions];
+		regions = new Region[numRegions];
+		int maxId = 0;
+		for(Region region : fullRegions)
+			maxId = Math.max(maxId, region.getId());
+		indexById = new int[maxId+1];
+		Arrays.fill(indexById, -1);
+		int r = 0;
+		int numNeighbors = 0;
+		for(Region region : fullRegions)
+		{
+			regionId[r] = region.getId();
+			superRegion[r] = superRegionIndexById[region.getSuperRegion().getId()];
+			superRegionSize[superRegion[r]]++;
+			regions[r] = region;
+			indexById[region.getId()] = r;
+			numNeighbors += region.getNeighbors().size();
+			r++;
+		}
+
+		neighborStart = new int[numRegions+1];
+		neighbors = new int[numNeighbors];
+		r = 0;
+		int n = 0;
+		for(Region region : fullRegions)
+		{
+			neighborStart[r] = n;
+			for(Region neighbor : region.getNeighbors())
+				neighbors[n++] = indexById[neighbor.getId()];
+			r++;
+		}
+		neighborStart[numRegions] = n;
+
+		owner = new int[numRegions];
+		armies = new int[numRegions];
+		Arrays.fill(owner, UNKNOWN);
+	}
+
+	//takes owners by region id and armies from the visible map, regions missing from it are unknown
+	void refresh(Map fullMap, Map visibleMap, int[] ownerById)
+	{
+		int r = 0;
+		for(Region region : fullMap.getRegions())
+		{
+			owner[r] = UNKNOWN;
+			armies[r] = 0;
+			regions[r] = region;
+			r++;
+		}
+		if(visibleMap == null)
+			return;
+		for(Region region : visibleMap.getRegions())
+		{
+			int index = indexOf(region.getId());
+			if(index < 0)
+				continue;
+			owner[index] = region.getId() < ownerById.length ? ownerById[region.getId()] : UNKNOWN;
+			armies[index] = region.getArmies();
+			regions[index] = region;
+		}
+	}
+
+	public int indexOf(int id)
+	{
+		return id >= 0 && id < indexById.length ? indexById[id] : -1;
+	}
+
+	public int superRegionIndexOf(int id)
+	{
+		return id >= 0 && id < superRegionIndexById.length ? superRegionIndexById[id] : -1;
+	}
+	
+	//the region object to make moves with
+	public Region region(int index)
+	{
+		return regions[index];
+	}
+
+	public int numNeighbors(int r)
+	{
+		return neighborStart[r+1] - neighborStart[r];
+	}
+
+	//one of our regions next to a region we don't own
+	public boolean isBorder(int r)
+	{
+		if(owner[r] != ME)
+			return false;
+		for(int n = neighborStart[r]; n < neighborStart[r+1]; n++)
+			if(owner[neighbors[n]] != ME)
+				return true;
+		return false;
+	}
+
+	//number of neighbors of r not owned by us
+	public int hostileNeighbors(int r)
+	{
+		int count = 0;
+		for(int n = neighborStart[r]; n < neighborStart[r+1]; n++)
+			if(owner[neighbors[n]] != ME)
+				count++;
+		return count;
+	}
+
+	//armies of the given player on the neighbors of r
+	public int armiesAround(int r, int player)
+	{
+		int sum = 0;
+		for(int n = neighborStart[r]; n < neighborStart[r+1]; n++)
+			if(owner[neighbors[n]] == player)
+				sum += armies[neighbors[n]];
+		return sum;
+	}
+
+	/**
+	 * Counts the regions of the player in each super region.
+	 * @param perSuperRegion filled with the counts, indexed by super region index
+	 */
+	public void countOwned(int player, int[] perSuperRegion)
+	{
+		Arrays.fill(perSuperRegion, 0, numSuperRegions, 0);
+		for(int r=0; r<numRegions; r++)
+			if(owner[r] == player)
+				perSuperRegion[superRegion[r]]++;
+	}
+
+}
@@ -0,0 +1,160 @@
+package core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import main.Region;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Encodes a response to the engine into a reused byte buffer and writes it with a single write and flush.
+ * Produces the same text as the getString() methods of the moves, separated by commas.
+ */
+public class MoveWriter {
+
+	private static final byte[] PLACE_ARMIES = bytes(" place_armies ");
+	private static final byte[] ATTACK_TRANSFER = bytes(" attack/transfer ");
+	private static final byte[] LINE_SEPARATOR = bytes(System.getProperty("line.separator"));
+
+	private final OutputStream out;
+	private byte[] buffer;
+	private int length = 0;
+
+	//player name of the last move and its bytes, the name does not change during a game
+	private String playerName;
+	private byte[] playerNameBytes;
+
+	public MoveWriter(OutputStream out, int capacity)
+	{
+		this.out = out;
+		this.buffer = new byte[capacity];
+	}
+
+	private static byte[] bytes(String text)
+	{
+		byte[] bytes = new byte[text.length()];
+		for(int i=0; i<bytes.length; i++)
+			bytes[i] = (byte) text.charAt(i);
+		return bytes;
+	}
+
+	public boolean isEmpty(){
+		return length == 0;
+	}
+
+	public void add(PlaceArmiesMove move)
+	{
+		if(!move.getIllegalMove().equals(""))
+		{
+			addText(move.getString());
+			addByte(',');
+			return;
+		}
+		addPlayerName(move.getPlayerName());
+		addBytes(PLACE_ARMIES);
+		addInt(move.getRegion().getId());
+		addByte(' ');
+		addInt(move.getArmies());
+		addByte(',');
+	}
+
+	public void add(AttackTransferMove move)
+	{
+		if(!move.getIllegalMove().equals(""))
+		{
+			addText(move.getString());
+			addByte(',');
+			return;
+		}
+		addPlayerName(move.getPlayerName());
+		addBytes(ATTACK_TRANSFER);
+		addInt(move.getFromRegion().getId());
+		addByte(' ');
+		addInt(move.getToRegion().getId());
+		addByte(' ');
+		addInt(move.getArmies());
+		addByte(',');
+	}
+
+	public void add(Region region)
+	{
+		addInt(region.getId());
+		addByte(' ');
+	}
+
+	public void addText(String text)
+	{
+		ensureCapacity(text.length());
+		for(int i=0; i<text.length(); i++)
+			buffer[length++] = (byte) text.charAt(i);
+	}
+
+	private void addPlayerName(String name)
+	{
+		if(name != playerName)
+		{
+			playerName = name;
+			playerNameBytes = bytes(name);
+		}
+		addBytes(playerNameBytes);
+	}
+
+	private void addBytes(byte[] bytes)
+	{
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, length, bytes.length);
+		length += bytes.length;
+	}
+
+	private void addByte(char c)
+	{
+		ensureCapacity(1);
+		buffer[length++] = (byte) c;
+	}
+
+	private void addInt(int value)
+	{
+		ensureCapacity(11);
+		if(value < 0)
+		{
+			buffer[length++] = '-';
+			value = -value;
+		}
+		int digits = 1;
+		for(int rest = value / 10; rest > 0; rest /= 10)
+			digits++;
+		for(int i = length + digits - 1; i >= length; i--)
+		{
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		length += digits;
+	}
+
+	private void ensureCapacity(int extra)
+	{
+		if(length + extra <= buffer.length)
+			return;
+		byte[] larger = new byte[Math.max(buffer.length * 2, length + extra)];
+		System.arraycopy(buffer, 0, larger, 0, length);
+		buffer = larger;
+	}
+
+	/**
+	 * Ends the line, writes the response and flushes the output.
+	 */
+	public void endResponse()
+	{
+		addBytes(LINE_SEPARATOR);
+		try {
+			out.write(buffer, 0, length);
+			out.flush();
+		}
+		catch(IOException e) {
+			System.err.println("Unable to write response " + e.getMessage());
+		}
+		length = 0;
+	}
+
+}
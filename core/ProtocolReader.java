@@ -0,0 +1,211 @@
+package core;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads the engine input line by line from a byte channel and decodes keywords, numbers and player names
+ * straight from the bytes of the line. Buffers are reused, so no objects are created per line or per token
+ * once the longest line has been seen.
+ */
+public class ProtocolReader {
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+	private boolean endOfInput = false;
+
+	private byte[] line = new byte[1 << 12]; //current line, without line break and trailing spaces
+	private int length;
+	private int position; //next byte of the line to decode
+	private boolean listContinues; //last number read was followed by a comma
+
+	public ProtocolReader(InputStream input)
+	{
+		if(input instanceof FileInputStream)
+			this.channel = ((FileInputStream) input).getChannel();
+		else
+			this.channel = Channels.newChannel(input);
+		buffer.flip();
+	}
+
+	/**
+	 * Reads the next line of input.
+	 * @return false if there is no more input
+	 */
+	public boolean nextLine() throws IOException
+	{
+		length = 0;
+		position = 0;
+		boolean readAnything = false;
+		while(true)
+		{
+			if(!buffer.hasRemaining())
+			{
+				if(endOfInput || !fill())
+					return readAnything;
+			}
+			readAnything = true;
+			byte b = buffer.get();
+			if(b == '\n')
+				break;
+			if(length == line.length)
+			{
+				byte[] larger = new byte[line.length * 2];
+				System.arraycopy(line, 0, larger, 0, length);
+				line = larger;
+			}
+			line[length++] = b;
+		}
+		while(length > 0 && line[length-1] <= ' ') //trailing \r and spaces
+			length--;
+		skipSpaces();
+		return true;
+	}
+
+	private boolean fill() throws IOException
+	{
+		buffer.clear();
+		int read;
+		do {
+			read = channel.read(buffer);
+		} while(read == 0);
+		buffer.flip();
+		if(read < 0)
+			endOfInput = true;
+		return read > 0;
+	}
+
+	private void skipSpaces()
+	{
+		while(position < length && line[position] <= ' ')
+			position++;
+	}
+
+	public boolean isEmpty(){
+		return length == 0;
+	}
+
+	public boolean hasNext(){
+		return position < length;
+	}
+
+	public boolean listContinues(){
+		return listContinues;
+	}
+
+	//number of space separated tokens on the whole line
+	public int countTokens()
+	{
+		int tokens = 0;
+		boolean inToken = false;
+		for(int i=0; i<length; i++)
+		{
+			boolean space = line[i] <= ' ';
+			if(!space && !inToken)
+				tokens++;
+			inToken = !space;
+		}
+		return tokens;
+	}
+
+	/**
+	 * Consumes the next token if it is equal to the keyword.
+	 * @return true if the token matched and was consumed
+	 */
+	public boolean nextIs(byte[] keyword)
+	{
+		int end = position + keyword.length;
+		if(end > length || (end < length && line[end] > ' '))
+			return false;
+		for(int i=0; i<keyword.length; i++)
+			if(line[position+i] != keyword[i])
+				return false;
+		position = end;
+		skipSpaces();
+		return true;
+	}
+
+	/**
+	 * Reads a number that ends at a space, a comma or the end of the line. A comma is consumed and remembered,
+	 * see listContinues().
+	 * @throws NumberFormatException if the token is not a number, the token is skipped
+	 */
+	public long nextLong()
+	{
+		int start = position;
+		boolean negative = position < length && line[position] == '-';
+		if(negative)
+			position++;
+		long value = 0;
+		int digits = 0;
+		while(position < length && line[position] >= '0' && line[position] <= '9')
+		{
+			value = value * 10 + (line[position] - '0');
+			position++;
+			digits++;
+		}
+		boolean valid = digits > 0 && (position == length || line[position] <= ' ' || line[position] == ',');
+		if(!valid)
+		{
+			while(position < length && line[position] > ' ' && line[position] != ',')
+				position++;
+		}
+		listContinues = position < length && line[position] == ',';
+		if(listContinues)
+			position++;
+		skipSpaces();
+		if(!valid)
+			throw new NumberFormatException("For input string: \"" + new String(line, start, position - start).trim() + "\"");
+		return negative ? -value : value;
+	}
+
+	public int nextInt()
+	{
+		return (int) nextLong();
+	}
+
+	/**
+	 * Reads the next token as a name. If it equals one of the known names, that String is returned,
+	 * otherwise a new String is made.
+	 */
+	public String nextName(String[] knownNames)
+	{
+		int start = position;
+		while(position < length && line[position] > ' ')
+			position++;
+		int end = position;
+		skipSpaces();
+
+		for(String name : knownNames)
+			if(name != null && matches(name, start, end))
+				return name;
+		return new String(line, start, end - start);
+	}
+
+	private boolean matches(String name, int start, int end)
+	{
+		if(name.length() != end - start)
+			return false;
+		for(int i=0; i<name.length(); i++)
+			if(name.charAt(i) != (char) (line[start+i] & 0xff))
+				return false;
+		return true;
+	}
+
+	//rest of the line as a String
+	public String rest()
+	{
+		return new String(line, position, length - position);
+	}
+
+	//whole line as a String, for error messages
+	public String lineString()
+	{
+		return new String(line, 0, length);
+	}
+
+}
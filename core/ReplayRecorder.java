@@ -0,0 +1,132 @@
+package core;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Appends what a BotParser reads and writes to a log, so a game can be played again with the Replayer.
+ * Every game starts with a line "= game", so the games of a bot that appended many to the same log can be
+ * told apart. Every input line is written as "< line", every response as "> microseconds response", the
+ * microseconds being the time from reading the line that asked for the response until the response was written.
+ * The log is flushed after every response, so it is complete up to the last response if the bot is killed.
+ */
+public class ReplayRecorder {
+
+	static final byte INPUT = '<';
+	static final byte RESPONSE = '>';
+	static final byte GAME = '=';
+
+	private final OutputStream log;
+	private long lineStart; //System.nanoTime() when the last input line was read
+
+	public ReplayRecorder(OutputStream log)
+	{
+		this.log = new BufferedOutputStream(log, 1 << 14);
+		try {
+			this.log.write(GAME);
+			writeText(" game\n");
+		}
+		catch(IOException e) {
+			System.err.println("Unable to write replay log " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Records to the file given with -DreplayLog=file, or returns null when there is none.
+	 */
+	public static ReplayRecorder fromProperty()
+	{
+		return toFile(System.getProperty("replayLog"));
+	}
+
+	/**
+	 * Records to the end of the file, or returns null when the file is null or can't be opened.
+	 */
+	public static ReplayRecorder toFile(String file)
+	{
+		if(file == null)
+			return null;
+		try {
+			return new ReplayRecorder(new FileOutputStream(file, true));
+		}
+		catch(IOException e) {
+			System.err.println("Unable to open replay log " + e.getMessage());
+			return null;
+		}
+	}
+
+	void input(String line)
+	{
+		lineStart = System.nanoTime();
+		try {
+			log.write(INPUT);
+			log.write(' ');
+			writeText(line);
+			log.write('\n');
+		}
+		catch(IOException e) {
+			System.err.println("Unable to write replay log " + e.getMessage());
+		}
+	}
+
+	//the response as MoveWriter writes it, with its line break
+	void response(byte[] bytes, int offset, int length)
+	{
+		long micros = (System.nanoTime() - lineStart) / 1000;
+		while(length > 0 && (bytes[offset + length - 1] == '\n' || bytes[offset + length - 1] == '\r'))
+			length--;
+		try {
+			log.write(RESPONSE);
+			log.write(' ');
+			writeText(Long.toString(micros));
+			log.write(' ');
+			log.write(bytes, offset, length);
+			log.write('\n');
+			log.flush();
+		}
+		catch(IOException e) {
+			System.err.println("Unable to write replay log " + e.getMessage());
+		}
+	}
+
+	private void writeText(String text) throws IOException
+	{
+		for(int i=0; i<text.length(); i++)
+			log.write((byte) text.charAt(i));
+	}
+
+	/**
+	 * The output to write responses to: writes them to out and records them.
+	 */
+	OutputStream tee(final OutputStream out)
+	{
+		return new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] {(byte) b}, 0, 1);
+			}
+			@Override
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+				out.write(bytes, offset, length);
+				response(bytes, offset, length);
+			}
+			@Override
+			public void flush() throws IOException {
+				out.flush();
+			}
+		};
+	}
+
+	public void close()
+	{
+		try {
+			log.close();
+		}
+		catch(IOException e) {
+			System.err.println("Unable to close replay log " + e.getMessage());
+		}
+	}
+
+}
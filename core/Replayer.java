@@ -0,0 +1,159 @@
+package core;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * Plays a log of the ReplayRecorder again through BotParser.run, at full speed: the input lines of every game
+ * of the log are given to a new bot as fast as it reads them. The responses are compared with the recorded ones,
+ * and the time of every response with the recorded time, so a game from the ladder can be reproduced and profiled.
+ * Bots with random choices may answer differently than in the recorded game.
+ */
+public class Replayer {
+
+	private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+	private static final OutputStream discard = new OutputStream() {
+		@Override
+		public void write(int b) {}
+		@Override
+		public void write(byte[] b, int off, int len) {}
+	};
+
+	private final ArrayList<Game> games = new ArrayList<Game>();
+
+	//the input lines of one game of the log, and the responses to them with their times
+	private static class Game {
+
+		final ByteArrayOutputStream input = new ByteArrayOutputStream();
+		final ArrayList<String> responses = new ArrayList<String>();
+		final ArrayList<Long> micros = new ArrayList<Long>();
+
+	}
+
+	public Replayer(Reader log) throws IOException
+	{
+		read(log, games);
+	}
+
+	//a game starts at every "= game" line of the ReplayRecorder, a log without them is one game
+	private static void read(Reader log, ArrayList<Game> games) throws IOException
+	{
+		BufferedReader reader = new BufferedReader(log);
+		Game game = null;
+		String line;
+		while((line = reader.readLine()) != null)
+		{
+			if(line.length() > 0 && line.charAt(0) == ReplayRecorder.GAME)
+			{
+				game = null; //a game that ends before its first line isn't kept
+				continue;
+			}
+			if(line.length() < 2)
+				continue;
+			if(game == null)
+			{
+				game = new Game();
+				games.add(game);
+			}
+			if(line.charAt(0) == ReplayRecorder.INPUT)
+			{
+				game.input.write(line.substring(2).getBytes(LATIN_1));
+				game.input.write('\n');
+			}
+			else if(line.charAt(0) == ReplayRecorder.RESPONSE)
+			{
+				int space = line.indexOf(' ', 2);
+				game.micros.add(Long.parseLong(line.substring(2, space)));
+				game.responses.add(line.substring(space+1));
+			}
+		}
+	}
+
+	public int getNumGames() {
+		return games.size();
+	}
+
+	public int getNumResponses(int game) {
+		return games.get(game).responses.size();
+	}
+
+	/**
+	 * Plays one game of the log with the bot, which has to be new, and prints the times, and the responses that
+	 * differ if printDifferences.
+	 * @param byteInput let the BotParser read with a ProtocolReader instead of a Scanner
+	 * @return number of responses that differ from the log
+	 */
+	public int replay(int game, Bot bot, boolean byteInput, PrintStream report, boolean printDifferences) throws IOException
+	{
+		ArrayList<String> responses = games.get(game).responses;
+		ArrayList<Long> micros = games.get(game).micros;
+		ByteArrayOutputStream replayLog = new ByteArrayOutputStream();
+		long start = System.nanoTime();
+		InputStream input = new ByteArrayInputStream(games.get(game).input.toByteArray());
+		new BotParser(bot, input, discard, byteInput, new ReplayRecorder(replayLog), null, null).run();
+		long time = System.nanoTime() - start;
+
+		ArrayList<Game> replayedGames = new ArrayList<Game>();
+		read(new StringReader(new String(replayLog.toByteArray(), LATIN_1)), replayedGames);
+		ArrayList<String> replayed = replayedGames.isEmpty() ? new ArrayList<String>() : replayedGames.get(0).responses;
+		ArrayList<Long> replayedMicros = replayedGames.isEmpty() ? new ArrayList<Long>() : replayedGames.get(0).micros;
+
+		int differences = Math.abs(replayed.size() - responses.size());
+		long recordedSum = 0, recordedMax = 0, replayedSum = 0, replayedMax = 0;
+		for(int i=0; i<Math.min(replayed.size(), responses.size()); i++)
+		{
+			if(!replayed.get(i).equals(responses.get(i)))
+			{
+				differences++;
+				if(printDifferences)
+					report.println("response " + (i+1) + " differs\n  log:    " + responses.get(i) + "\n  replay: " + replayed.get(i));
+			}
+			recordedSum += micros.get(i);
+			recordedMax = Math.max(recordedMax, micros.get(i));
+			replayedSum += replayedMicros.get(i);
+			replayedMax = Math.max(replayedMax, replayedMicros.get(i));
+		}
+		int n = Math.max(1, Math.min(replayed.size(), responses.size()));
+		report.printf("game %d: %d responses, %d differ, replayed in %.1f ms; per response: log mean %d us max %d us, replay mean %d us max %d us%n",
+				game+1, replayed.size(), differences, time / 1e6, recordedSum / n, recordedMax, replayedSum / n, replayedMax);
+		return differences;
+	}
+
+	/**
+	 * Arguments: bot package (like borderBot) log file [bytes] [repetitions]
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		if(args.length < 2)
+		{
+			System.err.println("usage: Replayer botPackage logFile [bytes] [repetitions]");
+			return;
+		}
+		Class<? extends Bot> botClass = Class.forName(args[0] + ".BotStarter").asSubclass(Bot.class);
+		boolean byteInput = args.length > 2 && args[2].equals("bytes");
+		int repetitions = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		Replayer replayer = new Replayer(new InputStreamReader(new FileInputStream(args[1]), LATIN_1));
+
+		//what bots print to System.out is discarded, like their responses
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(discard));
+		int differences = 0;
+		for(int i=0; i<repetitions; i++)
+			for(int game=0; game<replayer.getNumGames(); game++) //every game with a new bot, like the engine starts one
+				differences += replayer.replay(game, botClass.getDeclaredConstructor().newInstance(), byteInput, out, i == 0);
+		System.exit(differences == 0 ? 0 : 1);
+	}
+
+}
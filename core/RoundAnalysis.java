@@ -0,0 +1,178 @@
+package core;
+
+import java.util.ArrayList;
+
+import main.Map;
+import main.Region;
+import main.SuperRegion;
+
+/**
+ * Facts about the visible map that the strategy needs many times per round: how many regions we own in each
+ * super region, which of our regions are borders, which neighbors of our regions we don't own, and for each
+ * of our regions how far the closest border is and which neighbor leads there.
+ * Computed once after each map update, see BotState.getRoundAnalysis().
+ */
+public class RoundAnalysis {
+
+	private static final ArrayList<Region> NONE = new ArrayList<Region>();
+
+	private final MapSnapshot snapshot;
+	private final int[] occupied; //our regions per super region index
+	private final boolean[] border; //per region index
+	private final ArrayList<ArrayList<Region>> hostileNeighbors; //per region index, in the order of getNeighbors()
+	private final ArrayList<Region> ownedRegions = new ArrayList<Region>();
+	private final ArrayList<Region> borderRegions = new ArrayList<Region>();
+	private final int[] borderDistance; //per region index, steps over our regions to the closest border, -1 if there is none
+	private final Region[] nextHop; //per region index, the neighbor one step closer to the closest border
+	private final int[] queue; //breadth first search
+
+	RoundAnalysis(MapSnapshot snapshot)
+	{
+		this.snapshot = snapshot;
+		this.occupied = new int[snapshot.numSuperRegions];
+		this.border = new boolean[snapshot.numRegions];
+		this.borderDistance = new int[snapshot.numRegions];
+		this.nextHop = new Region[snapshot.numRegions];
+		this.queue = new int[snapshot.numRegions];
+		this.hostileNeighbors = new ArrayList<ArrayList<Region>>(snapshot.numRegions);
+		for(int r=0; r<snapshot.numRegions; r++)
+			hostileNeighbors.add(new ArrayList<Region>());
+	}
+
+	void refresh(Map visibleMap)
+	{
+		snapshot.countOwned(MapSnapshot.ME, occupied);
+		ownedRegions.clear();
+		borderRegions.clear();
+		for(int r=0; r<snapshot.numRegions; r++)
+		{
+			border[r] = false;
+			hostileNeighbors.get(r).clear();
+			borderDistance[r] = -1;
+			nextHop[r] = null;
+		}
+		if(visibleMap == null)
+			return;
+
+		for(Region region : visibleMap.getRegions())
+		{
+			int r = snapshot.indexOf(region.getId());
+			if(r < 0 || snapshot.owner[r] != MapSnapshot.ME)
+				continue;
+			ownedRegions.add(region);
+			ArrayList<Region> hostile = hostileNeighbors.get(r);
+			for(Region neighbor : region.getNeighbors())
+			{
+				int n = snapshot.indexOf(neighbor.getId());
+				if(n < 0 || snapshot.owner[n] != MapSnapshot.ME)
+					hostile.add(neighbor);
+			}
+			if(hostile.size() > 0)
+			{
+				border[r] = true;
+				borderRegions.add(region);
+			}
+		}
+		
+		computeBorderDistances();
+	}
+	
+	//one breadth first search over our regions, starting from all borders at once
+	private void computeBorderDistances()
+	{
+		int head = 0;
+		int tail = 0;
+		for(Region region : borderRegions)
+		{
+			int r = snapshot.indexOf(region.getId());
+			borderDistance[r] = 0;
+			queue[tail++] = r;
+		}
+		while(head < tail)
+		{
+			int r = queue[head++];
+			for(int n = snapshot.neighborStart[r]; n < snapshot.neighborStart[r+1]; n++)
+			{
+				int neighbor = snapshot.neighbors[n];
+				if(snapshot.owner[neighbor] == MapSnapshot.ME && borderDistance[neighbor] < 0)
+				{
+					borderDistance[neighbor] = borderDistance[r] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		
+		//first neighbor in the order of getNeighbors() that is one step closer
+		for(Region region : ownedRegions)
+		{
+			int r = snapshot.indexOf(region.getId());
+			if(borderDistance[r] <= 0)
+				continue;
+			for(Region neighbor : region.getNeighbors())
+			{
+				int n = snapshot.indexOf(neighbor.getId());
+				if(n >= 0 && snapshot.owner[n] == MapSnapshot.ME && borderDistance[n] == borderDistance[r] - 1)
+				{
+					nextHop[r] = neighbor;
+					break;
+				}
+			}
+		}
+	}
+
+	MapSnapshot getMapSnapshot(){
+		return snapshot;
+	}
+
+	//number of our regions in the super region
+	public int getOccupied(SuperRegion superRegion)
+	{
+		int s = snapshot.superRegionIndexOf(superRegion.getId());
+		return s < 0 ? 0 : occupied[s];
+	}
+
+	//one of our regions next to a region we don't own
+	public boolean isBorder(Region region)
+	{
+		int r = snapshot.indexOf(region.getId());
+		return r >= 0 && border[r];
+	}
+
+	/**
+	 * The neighbors of one of our regions that we don't own. Empty for interior regions and for regions we don't own.
+	 * The list is reused, it is only valid until the next map update.
+	 */
+	public ArrayList<Region> getHostileNeighbors(Region region)
+	{
+		int r = snapshot.indexOf(region.getId());
+		return r < 0 ? NONE : hostileNeighbors.get(r);
+	}
+
+	//steps over our regions from one of our regions to the closest border, 0 for borders, -1 if no border can be reached
+	public int getBorderDistance(Region region)
+	{
+		int r = snapshot.indexOf(region.getId());
+		return r < 0 ? -1 : borderDistance[r];
+	}
+	
+	/**
+	 * The neighbor to transfer armies to from one of our interior regions to bring them closer to the closest border.
+	 * The region itself if it is a border or if no border can be reached.
+	 */
+	public Region getTransferTarget(Region region)
+	{
+		int r = snapshot.indexOf(region.getId());
+		return r < 0 || nextHop[r] == null ? region : nextHop[r];
+	}
+	
+	//our visible regions, in the order of the visible map
+	public ArrayList<Region> getOwnedRegions(){
+		return ownedRegions;
+	}
+
+	//our regions next to a region we don't own, in the order of the visible map
+	public ArrayList<Region> getBorderRegions(){
+		return borderRegions;
+	}
+
+}
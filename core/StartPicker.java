@@ -0,0 +1,163 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.RecursiveTask;
+
+import main.Region;
+
+/**
+ * Ranks the pickable starting regions of any map by scoring every combination of PICKS of them. A region is worth
+ * what its super region is: the reward per region to take and per entry (region next to another super region)
+ * to defend. A combination adds a bonus for every two picks that are close together, more when they share a
+ * super region, since such picks help each other take it. A region ranks by the best combination it is part of.
+ * Combinations are scored on a fork-join pool, split by their first region, until shortly before the timeOut.
+ * Regions whose combinations were not all scored by then rank with what was scored.
+ */
+public class StartPicker {
+
+	static final int PICKS = 3; //regions each player gets
+	static final int PREFERRED = 6; //regions the engine asks for
+	static final double PROXIMITY_WEIGHT = 0.1; //divided by the distance between two picks
+	static final double SAME_SUPER_REGION_WEIGHT = 0.5; //times the value of the super region two picks share
+
+	private final Region[] pickable;
+	private final double[] value; //by pickable index
+	private final double[][] pairBonus; //by two pickable indices
+	private final boolean limited; //whether there is a timeOut
+	private final Deadline deadline;
+
+	public StartPicker(BotState state, Long timeOut)
+	{
+		ArrayList<Region> regions = state.getPickableStartingRegions();
+		pickable = regions.toArray(new Region[regions.size()]);
+		limited = timeOut != null && timeOut > 0;
+		deadline = new Deadline(timeOut);
+		int n = pickable.length;
+
+		MapSnapshot snapshot = state.getMapSnapshot();
+		Topology topology = state.getTopology();
+		double[] superRegionValue = superRegionValues(snapshot, topology);
+		value = new double[n];
+		for(int i=0; i<n; i++)
+			value[i] = superRegionValue[snapshot.superRegionIndexOf(pickable[i].getSuperRegion().getId())];
+
+		pairBonus = new double[n][n];
+		for(int i=0; i<n; i++)
+		{
+			int from = snapshot.indexOf(pickable[i].getId());
+			for(int j=0; j<n; j++)
+			{
+				int d = topology.distance(from, snapshot.indexOf(pickable[j].getId()));
+				if(i == j || d <= 0)
+					continue;
+				pairBonus[i][j] = PROXIMITY_WEIGHT / d;
+				if(pickable[i].getSuperRegion().getId() == pickable[j].getSuperRegion().getId())
+					pairBonus[i][j] += SAME_SUPER_REGION_WEIGHT * value[i];
+			}
+		}
+	}
+
+	//(reward + 1) / (regions * (1 + entries)) for each super region index, entries are its border regions
+	private static double[] superRegionValues(MapSnapshot snapshot, Topology topology)
+	{
+		double[] values = new double[snapshot.numSuperRegions];
+		for(int s=0; s<snapshot.numSuperRegions; s++)
+		{
+			int entries = topology.getBorderRegions(s).length;
+			values[s] = (snapshot.superRegionReward[s] + 1.0) / (Math.max(1, snapshot.superRegionSize[s]) * (1 + entries));
+		}
+		return values;
+	}
+
+	/**
+	 * The PREFERRED best regions, best first.
+	 */
+	public ArrayList<Region> getPreferredStartingRegions()
+	{
+		int n = pickable.length;
+		double[] best = new Combinations(0, n).invoke();
+
+		Integer[] order = new Integer[n];
+		for(int i=0; i<n; i++)
+			order[i] = i;
+		final double[] rank = best;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				if(rank[a] != rank[b])
+					return rank[a] > rank[b] ? -1 : 1;
+				if(value[a] != value[b])
+					return value[a] > value[b] ? -1 : 1;
+				return a - b;
+			}
+		});
+		ArrayList<Region> preferred = new ArrayList<Region>();
+		for(int i=0; i<Math.min(PREFERRED, n); i++)
+			preferred.add(pickable[order[i]]);
+		return preferred;
+	}
+
+	//score of the best combination each region is part of, for combinations whose first region is in [from, to)
+	private class Combinations extends RecursiveTask<double[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		Combinations(int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected double[] compute()
+		{
+			if(to - from > 1)
+			{
+				int middle = (from + to) / 2;
+				Combinations first = new Combinations(from, middle);
+				first.fork();
+				double[] best = new Combinations(middle, to).compute();
+				double[] other = first.join();
+				for(int i=0; i<best.length; i++)
+					best[i] = Math.max(best[i], other[i]);
+				return best;
+			}
+			int n = pickable.length;
+			double[] best = new double[n];
+			for(int i=0; i<n; i++)
+				best[i] = value[i]; //what a region is worth on its own, in case its combinations are not scored in time
+			if(from < to && !(limited && deadline.passed()))
+				score(new int[Math.min(PICKS, n)], 0, from, 0, best);
+			return best;
+		}
+
+		//tries every region from 'next' on as pick number 'count' of the combination
+		private void score(int[] picks, int count, int next, double score, double[] best)
+		{
+			if(count == picks.length)
+			{
+				for(int p=0; p<count; p++)
+					best[picks[p]] = Math.max(best[picks[p]], score);
+				return;
+			}
+			int last = count == 0 ? from + 1 : pickable.length;
+			for(int i=next; i<last; i++)
+			{
+				double added = value[i];
+				for(int p=0; p<count; p++)
+					added += pairBonus[picks[p]][i];
+				picks[count] = i;
+				score(picks, count+1, i+1, score + added, best);
+				if(count == 1 && limited && deadline.passed())
+					return;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,350 @@
+package core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Facts about the graph of the full map, which doesn't change after setup_map, computed once when the neighbors
+ * are given: the number of steps between every two regions, the articulation points (regions whose loss splits
+ * the map), and for each super region its border regions (its regions next to another super region), its
+ * entry regions (regions of other super regions next to it) and its reward per border region.
+ * Regions and super regions are the indices of the MapSnapshot, see BotState.getTopology().
+ * Distances are a matrix of bytes, or of shorts on maps where two regions are 255 or more steps apart. Maps of
+ * more than MAX_MATRIX_REGIONS regions get no matrix, their distances are searched when they are asked for.
+ * A TopologyCache can store the analysis in a file and map it again when the same map comes up.
+ */
+public class Topology {
+
+	static final int MAX_MATRIX_REGIONS = 4096; //16 MB of byte distances
+
+	static final int NO_PATH_BYTE = 0xff;
+	static final int NO_PATH_SHORT = 0xffff;
+
+	private final MapSnapshot snapshot;
+	private final int n;
+	private byte[] byteDistance; //from * n + to, unsigned, NO_PATH_BYTE if there is no path
+	private short[] shortDistance; //instead of byteDistance when a distance doesn't fit in a byte
+	private ByteBuffer mappedDistance; //instead of both, the matrix in a file of the TopologyCache
+	private int mappedWidth; //bytes per distance in mappedDistance
+	private int maxDistance; //longest distance between two connected regions, if there is a matrix
+
+	private final boolean[] articulationPoint;
+	private final int[] articulationPoints;
+
+	private final int[][] borderRegions; //by super region index
+	private final int[][] entryRegions;
+	private final double[] rewardPerBorder;
+
+	//distances from one region when there is no matrix, the last one asked for
+	private final int[] searchDistance;
+	private final int[] queue;
+	private int searchFrom = -1;
+
+	Topology(MapSnapshot snapshot)
+	{
+		this.snapshot = snapshot;
+		this.n = snapshot.numRegions;
+		queue = new int[n];
+		if(n <= MAX_MATRIX_REGIONS)
+		{
+			computeDistances();
+			searchDistance = null;
+		}
+		else
+			searchDistance = new int[n];
+
+		articulationPoint = new boolean[n];
+		articulationPoints = computeArticulationPoints();
+
+		borderRegions = new int[snapshot.numSuperRegions][];
+		entryRegions = new int[snapshot.numSuperRegions][];
+		rewardPerBorder = new double[snapshot.numSuperRegions];
+		computeSuperRegionBorders();
+	}
+
+	/**
+	 * The analysis read by a TopologyCache.
+	 * @param distances the distance matrix with width bytes per distance, or null for maps without one
+	 */
+	Topology(MapSnapshot snapshot, ByteBuffer distances, int width, int maxDistance, int[] articulationPoints,
+			int[][] borderRegions, int[][] entryRegions)
+	{
+		this.snapshot = snapshot;
+		this.n = snapshot.numRegions;
+		queue = new int[n];
+		mappedDistance = distances;
+		mappedWidth = width;
+		searchDistance = distances == null ? new int[n] : null;
+		this.maxDistance = maxDistance;
+
+		this.articulationPoints = articulationPoints;
+		articulationPoint = new boolean[n];
+		for(int r : articulationPoints)
+			articulationPoint[r] = true;
+
+		this.borderRegions = borderRegions;
+		this.entryRegions = entryRegions;
+		rewardPerBorder = new double[snapshot.numSuperRegions];
+		for(int s=0; s<snapshot.numSuperRegions; s++)
+			rewardPerBorder[s] = (double) snapshot.superRegionReward[s] / Math.max(1, borderRegions[s].length);
+	}
+
+	//one breadth first search from every region, stored as bytes until a distance needs more
+	private void computeDistances()
+	{
+		byteDistance = new byte[n * n];
+		int[] distance = new int[n];
+		for(int from=0; from<n; from++)
+		{
+			search(from, distance);
+			int row = from * n;
+			for(int to=0; to<n; to++)
+			{
+				int d = distance[to];
+				maxDistance = Math.max(maxDistance, d);
+				if(shortDistance == null && d >= NO_PATH_BYTE)
+					widenDistances();
+				if(shortDistance != null)
+					shortDistance[row + to] = (short) (d < 0 ? NO_PATH_SHORT : d);
+				else
+					byteDistance[row + to] = (byte) (d < 0 ? NO_PATH_BYTE : d);
+			}
+		}
+	}
+
+	private void widenDistances()
+	{
+		shortDistance = new short[n * n];
+		for(int i=0; i<byteDistance.length; i++)
+		{
+			int d = byteDistance[i] & 0xff;
+			shortDistance[i] = (short) (d == NO_PATH_BYTE ? NO_PATH_SHORT : d);
+		}
+		byteDistance = null;
+	}
+
+	//steps from the region to every region, -1 for regions that can't be reached
+	private void search(int from, int[] distance)
+	{
+		Arrays.fill(distance, -1);
+		distance[from] = 0;
+		queue[0] = from;
+		int head = 0;
+		int tail = 1;
+		while(head < tail)
+		{
+			int r = queue[head++];
+			for(int e = snapshot.neighborStart[r]; e < snapshot.neighborStart[r+1]; e++)
+			{
+				int neighbor = snapshot.neighbors[e];
+				if(distance[neighbor] < 0)
+				{
+					distance[neighbor] = distance[r] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+	}
+
+	//Tarjan's depth first search with an explicit stack, so large maps don't overflow the call stack
+	private int[] computeArticulationPoints()
+	{
+		int[] order = new int[n]; //when the search reached the region, from 1, 0 for not yet
+		int[] low = new int[n];
+		int[] parent = new int[n];
+		int[] nextEdge = new int[n];
+		int[] stack = new int[n];
+		int time = 0;
+		int count = 0;
+		for(int root=0; root<n; root++)
+		{
+			if(order[root] != 0)
+				continue;
+			int rootChildren = 0;
+			int top = 0;
+			stack[top++] = root;
+			parent[root] = -1;
+			order[root] = low[root] = ++time;
+			nextEdge[root] = snapshot.neighborStart[root];
+			while(top > 0)
+			{
+				int r = stack[top-1];
+				if(nextEdge[r] < snapshot.neighborStart[r+1])
+				{
+					int neighbor = snapshot.neighbors[nextEdge[r]++];
+					if(order[neighbor] == 0)
+					{
+						parent[neighbor] = r;
+						order[neighbor] = low[neighbor] = ++time;
+						nextEdge[neighbor] = snapshot.neighborStart[neighbor];
+						stack[top++] = neighbor;
+						if(r == root)
+							rootChildren++;
+					}
+					else if(neighbor != parent[r])
+						low[r] = Math.min(low[r], order[neighbor]);
+					continue;
+				}
+				top--;
+				int p = parent[r];
+				if(p < 0)
+					continue;
+				low[p] = Math.min(low[p], low[r]);
+				if(p != root && low[r] >= order[p] && !articulationPoint[p])
+				{
+					articulationPoint[p] = true;
+					count++;
+				}
+			}
+			if(rootChildren > 1)
+			{
+				articulationPoint[root] = true;
+				count++;
+			}
+		}
+		int[] points = new int[count];
+		int i = 0;
+		for(int r=0; r<n; r++)
+			if(articulationPoint[r])
+				points[i++] = r;
+		return points;
+	}
+
+	private void computeSuperRegionBorders()
+	{
+		int numSuperRegions = snapshot.numSuperRegions;
+		int[] numBorders = new int[numSuperRegions];
+		int[] numEntries = new int[numSuperRegions];
+		int[] enteredBy = new int[numSuperRegions]; //region + 1 that was last counted as an entry of each super region
+		for(int r=0; r<n; r++)
+		{
+			int s = snapshot.superRegion[r];
+			boolean border = false;
+			for(int e = snapshot.neighborStart[r]; e < snapshot.neighborStart[r+1]; e++)
+			{
+				int other = snapshot.superRegion[snapshot.neighbors[e]];
+				if(other == s)
+					continue;
+				border = true;
+				if(enteredBy[other] != r+1) //once per super region r is next to
+				{
+					enteredBy[other] = r+1;
+					numEntries[other]++;
+				}
+			}
+			if(border)
+				numBorders[s]++;
+		}
+
+		for(int s=0; s<numSuperRegions; s++)
+		{
+			borderRegions[s] = new int[numBorders[s]];
+			entryRegions[s] = new int[numEntries[s]];
+			rewardPerBorder[s] = (double) snapshot.superRegionReward[s] / Math.max(1, numBorders[s]);
+		}
+		Arrays.fill(numBorders, 0);
+		Arrays.fill(numEntries, 0);
+		Arrays.fill(enteredBy, 0);
+		for(int r=0; r<n; r++)
+		{
+			int s = snapshot.superRegion[r];
+			boolean border = false;
+			for(int e = snapshot.neighborStart[r]; e < snapshot.neighborStart[r+1]; e++)
+			{
+				int other = snapshot.superRegion[snapshot.neighbors[e]];
+				if(other == s)
+					continue;
+				border = true;
+				if(enteredBy[other] != r+1)
+				{
+					enteredBy[other] = r+1;
+					entryRegions[other][numEntries[other]++] = r;
+				}
+			}
+			if(border)
+				borderRegions[s][numBorders[s]++] = r;
+		}
+	}
+
+	MapSnapshot getMapSnapshot(){
+		return snapshot;
+	}
+
+	/**
+	 * Steps from one region to another, -1 if there is no path. Constant time on maps with a distance matrix.
+	 */
+	public int distance(int from, int to)
+	{
+		if(byteDistance != null)
+		{
+			int d = byteDistance[from * n + to] & 0xff;
+			return d == NO_PATH_BYTE ? -1 : d;
+		}
+		if(shortDistance != null)
+		{
+			int d = shortDistance[from * n + to] & 0xffff;
+			return d == NO_PATH_SHORT ? -1 : d;
+		}
+		if(mappedDistance != null)
+		{
+			int d = mappedWidth == 1 ? mappedDistance.get(from * n + to) & 0xff : mappedDistance.getShort(2 * (from * n + to)) & 0xffff;
+			return d == (mappedWidth == 1 ? NO_PATH_BYTE : NO_PATH_SHORT) ? -1 : d;
+		}
+		return searchedDistance(from, to);
+	}
+
+	private synchronized int searchedDistance(int from, int to)
+	{
+		if(from != searchFrom)
+		{
+			search(from, searchDistance);
+			searchFrom = from;
+		}
+		return searchDistance[to];
+	}
+
+	public boolean hasDistanceMatrix(){
+		return byteDistance != null || shortDistance != null || mappedDistance != null;
+	}
+
+	//bytes per distance of the matrix, 0 if there is none
+	int getDistanceWidth()
+	{
+		if(byteDistance != null)
+			return 1;
+		if(shortDistance != null)
+			return 2;
+		return mappedDistance != null ? mappedWidth : 0;
+	}
+
+	//longest distance between two connected regions, 0 if there is no distance matrix
+	public int getMaxDistance(){
+		return maxDistance;
+	}
+
+	//a region whose loss disconnects the regions around it from each other
+	public boolean isArticulationPoint(int r){
+		return articulationPoint[r];
+	}
+
+	//all articulation points, by region index
+	public int[] getArticulationPoints(){
+		return articulationPoints;
+	}
+
+	//regions of the super region next to another super region, the ones to defend it at
+	public int[] getBorderRegions(int superRegion){
+		return borderRegions[superRegion];
+	}
+
+	//regions of other super regions next to the super region, the ones it can be attacked from
+	public int[] getEntryRegions(int superRegion){
+		return entryRegions[superRegion];
+	}
+
+	//reward of the super region divided by its border regions, the reward itself if it has none
+	public double getRewardPerBorder(int superRegion){
+		return rewardPerBorder[superRegion];
+	}
+
+}
@@ -0,0 +1,215 @@
+package core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Keeps the Topology of every map seen in a file of a local directory, so the analysis is done once per map
+ * instead of once per game. The file is named after a fingerprint of the map: a hash of everything the
+ * setup_map lines give (region and super region ids, rewards and neighbors), taken from the MapSnapshot so
+ * it is the same for both ways BotParser reads its input. A file found for the map is memory mapped and its
+ * distance matrix is read straight from the mapping. When the file is missing or can't be read the topology
+ * is computed and written for the next game, to a temporary file that is then renamed, so bots sharing the
+ * directory never read a partial file.
+ */
+public class TopologyCache {
+
+	private static final int MAGIC = 0x544f504f; //"TOPO"
+	private static final int VERSION = 1;
+
+	private final File directory;
+
+	public TopologyCache(File directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * A cache in the directory given with -DtopologyCache=directory, or null when there is none.
+	 */
+	public static TopologyCache fromProperty()
+	{
+		String directory = System.getProperty("topologyCache");
+		return directory == null ? null : new TopologyCache(new File(directory));
+	}
+
+	//the topology of the map from its file, or computed and written to it
+	Topology get(MapSnapshot snapshot)
+	{
+		long fingerprint = fingerprint(snapshot);
+		File file = new File(directory, String.format("topology-%016x.bin", fingerprint));
+		if(file.isFile())
+		{
+			try {
+				Topology topology = read(file, snapshot, fingerprint);
+				if(topology != null)
+					return topology;
+				System.err.println("Topology cache " + file + " doesn't match the map");
+			}
+			catch(IOException e) {
+				System.err.println("Unable to read topology cache " + e.getMessage());
+			}
+		}
+
+		Topology topology = new Topology(snapshot);
+		try {
+			write(topology, file, fingerprint);
+		}
+		catch(IOException e) {
+			System.err.println("Unable to write topology cache " + e.getMessage());
+		}
+		return topology;
+	}
+
+	//64 bit FNV-1a over the topology arrays of the map
+	static long fingerprint(MapSnapshot snapshot)
+	{
+		long hash = 0xcbf29ce484222325L;
+		hash = hash(hash, snapshot.numRegions);
+		hash = hash(hash, snapshot.numSuperRegions);
+		for(int[] values : new int[][] { snapshot.superRegionId, snapshot.superRegionReward, snapshot.regionId,
+				snapshot.superRegion, snapshot.neighborStart, snapshot.neighbors })
+		{
+			hash = hash(hash, values.length);
+			for(int value : values)
+				hash = hash(hash, value);
+		}
+		return hash;
+	}
+
+	private static long hash(long hash, int value)
+	{
+		for(int shift=0; shift<32; shift+=8)
+		{
+			hash ^= (value >>> shift) & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	//null if the file is of another map or version
+	private static Topology read(File file, MapSnapshot snapshot, long fingerprint) throws IOException
+	{
+		MappedByteBuffer buffer;
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = in.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); //stays valid after closing
+		}
+		finally {
+			in.close();
+		}
+
+		int n = snapshot.numRegions;
+		if(buffer.remaining() < 32 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != fingerprint
+				|| buffer.getInt() != n || buffer.getInt() != snapshot.numSuperRegions)
+			return null;
+		int width = buffer.getInt();
+		int maxDistance = buffer.getInt();
+		if(width < 0 || width > 2)
+			return null;
+		try {
+			int[] articulationPoints = readRegions(buffer, n);
+			if(articulationPoints == null)
+				return null;
+			int[][] borderRegions = new int[snapshot.numSuperRegions][];
+			int[][] entryRegions = new int[snapshot.numSuperRegions][];
+			for(int s=0; s<snapshot.numSuperRegions; s++)
+			{
+				borderRegions[s] = readRegions(buffer, n);
+				if(borderRegions[s] == null)
+					return null;
+				entryRegions[s] = readRegions(buffer, n);
+				if(entryRegions[s] == null)
+					return null;
+			}
+			ByteBuffer distances = null;
+			if(width > 0)
+			{
+				if(buffer.remaining() != (long) n * n * width)
+					return null;
+				distances = buffer.slice();
+			}
+			return new Topology(snapshot, distances, width, maxDistance, articulationPoints, borderRegions, entryRegions);
+		}
+		catch(RuntimeException e) { //a truncated or damaged file
+			return null;
+		}
+	}
+
+	//a list of region indices, null if its length or a region doesn't fit the map or the rest of the file,
+	//checked before allocating so a damaged length can't ask for more memory than there is
+	private static int[] readRegions(ByteBuffer buffer, int n)
+	{
+		int count = buffer.getInt();
+		if(count < 0 || count > n || count > buffer.remaining() / 4)
+			return null;
+		int[] regions = new int[count];
+		for(int i=0; i<count; i++)
+		{
+			regions[i] = buffer.getInt();
+			if(regions[i] < 0 || regions[i] >= n)
+				return null;
+		}
+		return regions;
+	}
+
+	private void write(Topology topology, File file, long fingerprint) throws IOException
+	{
+		directory.mkdirs();
+		File temporary = File.createTempFile("topology", ".tmp", directory);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16));
+		try {
+			MapSnapshot snapshot = topology.getMapSnapshot();
+			int n = snapshot.numRegions;
+			int width = topology.getDistanceWidth();
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(fingerprint);
+			out.writeInt(n);
+			out.writeInt(snapshot.numSuperRegions);
+			out.writeInt(width);
+			out.writeInt(topology.getMaxDistance());
+			writeInts(out, topology.getArticulationPoints());
+			for(int s=0; s<snapshot.numSuperRegions; s++)
+			{
+				writeInts(out, topology.getBorderRegions(s));
+				writeInts(out, topology.getEntryRegions(s));
+			}
+			for(int from=0; from<n && width > 0; from++)
+			{
+				for(int to=0; to<n; to++)
+				{
+					int d = topology.distance(from, to);
+					if(width == 1)
+						out.writeByte(d < 0 ? Topology.NO_PATH_BYTE : d);
+					else
+						out.writeShort(d < 0 ? Topology.NO_PATH_SHORT : d);
+				}
+			}
+		}
+		finally {
+			out.close();
+		}
+		if(!temporary.renameTo(file))
+		{
+			temporary.delete();
+			throw new IOException("can't rename " + temporary + " to " + file);
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException
+	{
+		out.writeInt(values.length);
+		for(int value : values)
+			out.writeInt(value);
+	}
+
+}
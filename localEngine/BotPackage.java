@@ -0,0 +1,41 @@
+package localEngine;
+
+import core.Bot;
+
+/**
+ * A bot to create players from, given by the package of its BotStarter, like "borderBot".
+ */
+public class BotPackage {
+
+	private final String name;
+	private final Class<? extends Bot> starterClass;
+
+	public BotPackage(String name)
+	{
+		this.name = name;
+		try {
+			starterClass = Class.forName(name + ".BotStarter").asSubclass(Bot.class);
+		}
+		catch(ClassNotFoundException e) {
+			throw new IllegalArgumentException("Unable to load bot package " + name + ": " + e, e);
+		}
+		catch(ClassCastException e) {
+			throw new IllegalArgumentException(name + ".BotStarter is not a core.Bot", e);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public BotPackagePlayer newPlayer()
+	{
+		try {
+			return new BotPackagePlayer(starterClass.getDeclaredConstructor().newInstance());
+		}
+		catch(ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Unable to create " + starterClass.getName() + ": " + e, e);
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package localEngine;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+
+import core.Bot;
+import core.BotState;
+import main.Region;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Plays a Bot with its own BotState, which gets the messages of the engine like BotParser would give them.
+ */
+public class BotPackagePlayer implements Player {
+
+	private final Bot bot;
+	private final BotState state = new BotState();
+	private final Method setRandomSeed; //null if the bot has no random choices to seed
+
+	public BotPackagePlayer(Bot bot)
+	{
+		this.bot = bot;
+		Method method;
+		try {
+			method = bot.getClass().getMethod("setRandomSeed", long.class);
+		}
+		catch(NoSuchMethodException e) {
+			method = null;
+		}
+		this.setRandomSeed = method;
+	}
+
+	/**
+	 * Seeds the random choices of the bot, so a game can be played again with the same moves.
+	 * @return false if the bot can't be seeded
+	 */
+	public boolean setRandomSeed(long seed)
+	{
+		if(setRandomSeed == null)
+			return false;
+		try {
+			setRandomSeed.invoke(bot, seed);
+		}
+		catch(InvocationTargetException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		catch(IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+		return true;
+	}
+
+	@Override
+	public void updateSettings(String key, String value)
+	{
+		state.updateSettings(key, value);
+	}
+
+	@Override
+	public void setupMap(String[] parts)
+	{
+		state.setupMap(parts);
+	}
+
+	@Override
+	public ArrayList<Region> getPreferredStartingRegions(String[] parts, long timeOut)
+	{
+		state.setPickableStartingRegions(parts);
+		return bot.getPreferredStartingRegions(state, timeOut);
+	}
+
+	@Override
+	public void updateMap(String[] parts)
+	{
+		state.updateMap(parts);
+	}
+
+	@Override
+	public ArrayList<PlaceArmiesMove> getPlaceArmiesMoves(long timeOut)
+	{
+		return bot.getPlaceArmiesMoves(state, timeOut);
+	}
+
+	@Override
+	public ArrayList<AttackTransferMove> getAttackTransferMoves(long timeOut)
+	{
+		return bot.getAttackTransferMoves(state, timeOut);
+	}
+
+}
@@ -0,0 +1,54 @@
+package localEngine;
+
+/**
+ * Outcome of one game of the LocalEngine. Players are numbered 1 and 2 in the order they were given to the engine.
+ */
+public class GameResult {
+
+	private final int winner; //1 or 2, 0 for a draw
+	private final int rounds;
+	private final int[] regions; //regions owned at the end, by player number
+	private final int[] timeOuts; //responses that came after the timeOut and were ignored
+	private final int[] errors; //calls that threw an exception
+
+	public GameResult(int winner, int rounds, int[] regions, int[] timeOuts, int[] errors)
+	{
+		this.winner = winner;
+		this.rounds = rounds;
+		this.regions = regions;
+		this.timeOuts = timeOuts;
+		this.errors = errors;
+	}
+
+	public int getWinner() {
+		return winner;
+	}
+
+	public boolean isDraw() {
+		return winner == 0;
+	}
+
+	public int getRounds() {
+		return rounds;
+	}
+
+	public int getRegions(int player) {
+		return regions[player];
+	}
+
+	public int getTimeOuts(int player) {
+		return timeOuts[player];
+	}
+
+	public int getErrors(int player) {
+		return errors[player];
+	}
+
+	public String getString()
+	{
+		return (winner == 0 ? "draw" : "player" + winner + " won") + " after " + rounds + " rounds, regions "
+				+ regions[1] + "-" + regions[2] + ", time outs " + timeOuts[1] + "-" + timeOuts[2]
+				+ ", errors " + errors[1] + "-" + errors[2];
+	}
+
+}
@@ -0,0 +1,437 @@
+package localEngine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import main.Map;
+import main.Region;
+import main.SuperRegion;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * Plays a game of Warlight between two Players in this process, with the rules of the theaigames engine:
+ * each player picks starting regions from two random regions per super region, gets 5 armies a round plus
+ * the rewards of the super regions it owns, and only sees its own regions and their neighbors.
+ * Moves of both players are executed in turns, an attacking army kills a defender with a chance of 60%,
+ * a defending army kills an attacker with a chance of 70%. All randomness comes from the seed.
+ */
+public class LocalEngine {
+
+	public static final int STARTING_ARMIES = 5; //per round, without super region rewards
+	public static final int NEUTRAL_ARMIES = 2;
+	public static final int PICKABLE_PER_SUPER_REGION = 2;
+	public static final int STARTING_REGIONS = 3; //per player
+	public static final double ATTACKER_KILL_CHANCE = 0.6;
+	public static final double DEFENDER_KILL_CHANCE = 0.7;
+
+	private static final String[] PLAYER_NAMES = {"neutral", "player1", "player2"};
+
+	private final String[][] setupMessages;
+	private final Player[] players; //indexed by player number
+	private final Random random;
+
+	private int maxRounds = 100;
+	private long timeOut = 0;
+	private boolean enforceTimeOut = false;
+
+	private Map map;
+	private Region[] regionsById;
+	private int[] movable; //by region id, armies that can still attack or transfer this round
+	private final int[] timeOuts = new int[3];
+	private final int[] errors = new int[3];
+
+	/**
+	 * @param setupMessages the setup_map super_regions, regions and neighbors messages, split into parts
+	 */
+	public LocalEngine(String[][] setupMessages, Player player1, Player player2, long seed)
+	{
+		this.setupMessages = setupMessages;
+		this.players = new Player[] {null, player1, player2};
+		this.random = new Random(seed);
+	}
+
+	public void setMaxRounds(int maxRounds) {
+		this.maxRounds = maxRounds;
+	}
+
+	/**
+	 * The timeOut passed to the bots with every request. A timeOut of 0 asks for an answer right away
+	 * and is not checked.
+	 */
+	public void setTimeOut(long timeOut) {
+		this.timeOut = timeOut;
+	}
+
+	//when set, responses that take longer than the timeOut are ignored, like the real engine does
+	public void setEnforceTimeOut(boolean enforceTimeOut) {
+		this.enforceTimeOut = enforceTimeOut;
+	}
+
+	public GameResult play()
+	{
+		createMap();
+		for(int p=1; p<=2; p++)
+		{
+			try {
+				players[p].updateSettings("your_bot", PLAYER_NAMES[p]);
+				players[p].updateSettings("opponent_bot", PLAYER_NAMES[3-p]);
+				for(String[] message : setupMessages)
+					players[p].setupMap(message);
+			}
+			catch(RuntimeException e) {
+				errors[p]++;
+			}
+		}
+		distributeStartingRegions();
+
+		int round = 0;
+		while(round < maxRounds && countRegions(1) > 0 && countRegions(2) > 0)
+		{
+			round++;
+			playRound();
+		}
+
+		int[] regions = {0, countRegions(1), countRegions(2)};
+		int winner = 0;
+		if(regions[1] > regions[2])
+			winner = 1;
+		else if(regions[2] > regions[1])
+			winner = 2;
+		return new GameResult(winner, round, regions, timeOuts.clone(), errors.clone());
+	}
+
+	private void createMap()
+	{
+		map = new Map();
+		int maxId = 0;
+		for(String[] message : setupMessages)
+		{
+			if(message[1].equals("super_regions"))
+			{
+				for(int i=2; i+1<message.length; i+=2)
+					map.add(new SuperRegion(Integer.parseInt(message[i]), Integer.parseInt(message[i+1])));
+			}
+			else if(message[1].equals("regions"))
+			{
+				for(int i=2; i+1<message.length; i+=2)
+				{
+					int id = Integer.parseInt(message[i]);
+					SuperRegion superRegion = map.getSuperRegion(Integer.parseInt(message[i+1]));
+					map.add(new Region(id, superRegion, PLAYER_NAMES[0], NEUTRAL_ARMIES));
+					maxId = Math.max(maxId, id);
+				}
+				regionsById = new Region[maxId+1];
+				for(Region region : map.getRegions())
+					regionsById[region.getId()] = region;
+			}
+			else if(message[1].equals("neighbors"))
+			{
+				for(int i=2; i+1<message.length; i+=2)
+				{
+					Region region = regionsById[Integer.parseInt(message[i])];
+					for(String neighborId : message[i+1].split(","))
+						region.addNeighbor(regionsById[Integer.parseInt(neighborId)]);
+				}
+			}
+		}
+		movable = new int[maxId+1];
+	}
+
+	//the engine's own region for a region of a bot, null if there is no such region
+	private Region region(Region botRegion)
+	{
+		if(botRegion == null || botRegion.getId() < 0 || botRegion.getId() >= regionsById.length)
+			return null;
+		return regionsById[botRegion.getId()];
+	}
+
+	private int countRegions(int p)
+	{
+		int count = 0;
+		for(Region region : map.getRegions())
+			if(region.ownedByPlayer(PLAYER_NAMES[p]))
+				count++;
+		return count;
+	}
+
+	private int startingArmies(int p)
+	{
+		int armies = STARTING_ARMIES;
+		for(SuperRegion superRegion : map.getSuperRegions())
+			if(PLAYER_NAMES[p].equals(superRegion.ownedByPlayer()))
+				armies += superRegion.getArmiesReward();
+		return armies;
+	}
+
+	private void distributeStartingRegions()
+	{
+		ArrayList<Region> pickable = new ArrayList<Region>();
+		for(SuperRegion superRegion : map.getSuperRegions())
+		{
+			ArrayList<Region> subRegions = new ArrayList<Region>(superRegion.getSubRegions());
+			Collections.shuffle(subRegions, random);
+			pickable.addAll(subRegions.subList(0, Math.min(PICKABLE_PER_SUPER_REGION, subRegions.size())));
+		}
+		String[] message = new String[pickable.size()+2];
+		message[0] = "pick_starting_regions";
+		message[1] = String.valueOf(timeOut);
+		for(int i=0; i<pickable.size(); i++)
+			message[i+2] = String.valueOf(pickable.get(i).getId());
+
+		ArrayList<ArrayList<Region>> preferred = new ArrayList<ArrayList<Region>>();
+		preferred.add(null);
+		for(int p=1; p<=2; p++)
+		{
+			ArrayList<Region> regions = null;
+			long start = System.nanoTime();
+			try {
+				regions = players[p].getPreferredStartingRegions(message, timeOut);
+			}
+			catch(RuntimeException e) {
+				errors[p]++;
+			}
+			if(tookTooLong(p, start))
+				regions = null;
+			preferred.add(regions != null ? regions : new ArrayList<Region>());
+		}
+
+		//players take turns taking their most preferred region that is still free, or a random one
+		int numStartingRegions = Math.min(STARTING_REGIONS, pickable.size() / 2);
+		int first = 1 + random.nextInt(2);
+		int[] next = new int[3];
+		for(int i=0; i<2*numStartingRegions; i++)
+		{
+			int p = i % 2 == 0 ? first : 3 - first;
+			Region chosen = null;
+			ArrayList<Region> wanted = preferred.get(p);
+			while(chosen == null && next[p] < wanted.size())
+			{
+				Region region = region(wanted.get(next[p]++));
+				if(region != null && pickable.contains(region))
+					chosen = region;
+			}
+			if(chosen == null)
+				chosen = pickable.get(random.nextInt(pickable.size()));
+			pickable.remove(chosen);
+			chosen.setPlayerName(PLAYER_NAMES[p]);
+		}
+	}
+
+	private void playRound()
+	{
+		int[] armiesToPlace = {0, startingArmies(1), startingArmies(2)};
+		String[][] updates = {null, visibleRegionsMessage(1), visibleRegionsMessage(2)};
+		for(int p=1; p<=2; p++)
+		{
+			try {
+				players[p].updateSettings("starting_armies", String.valueOf(armiesToPlace[p]));
+				players[p].updateMap(updates[p]);
+			}
+			catch(RuntimeException e) {
+				errors[p]++;
+			}
+		}
+
+		ArrayList<ArrayList<PlaceArmiesMove>> placeArmiesMoves = new ArrayList<ArrayList<PlaceArmiesMove>>();
+		placeArmiesMoves.add(null);
+		for(int p=1; p<=2; p++)
+		{
+			ArrayList<PlaceArmiesMove> moves = null;
+			long start = System.nanoTime();
+			try {
+				moves = players[p].getPlaceArmiesMoves(timeOut);
+			}
+			catch(RuntimeException e) {
+				errors[p]++;
+			}
+			if(tookTooLong(p, start))
+				moves = null;
+			placeArmiesMoves.add(moves);
+		}
+		for(int p=1; p<=2; p++)
+			if(placeArmiesMoves.get(p) != null)
+				placeArmies(p, placeArmiesMoves.get(p), armiesToPlace[p]);
+
+		ArrayList<ArrayList<AttackTransferMove>> attackTransferMoves = new ArrayList<ArrayList<AttackTransferMove>>();
+		attackTransferMoves.add(null);
+		for(int p=1; p<=2; p++)
+		{
+			ArrayList<AttackTransferMove> moves = null;
+			long start = System.nanoTime();
+			try {
+				moves = players[p].getAttackTransferMoves(timeOut);
+			}
+			catch(RuntimeException e) {
+				errors[p]++;
+			}
+			if(tookTooLong(p, start))
+				moves = null;
+			attackTransferMoves.add(moves != null ? moves : new ArrayList<AttackTransferMove>());
+		}
+
+		//only armies that were there before the moves started can move, armies that arrive have to wait a round
+		for(Region region : map.getRegions())
+			movable[region.getId()] = region.getArmies();
+		int first = 1 + random.nextInt(2);
+		int[] next = new int[3];
+		while(next[1] < attackTransferMoves.get(1).size() || next[2] < attackTransferMoves.get(2).size())
+		{
+			for(int p : new int[] {first, 3 - first})
+				if(next[p] < attackTransferMoves.get(p).size())
+					attackTransfer(p, attackTransferMoves.get(p).get(next[p]++));
+		}
+	}
+
+	private boolean tookTooLong(int p, long start)
+	{
+		if(timeOut <= 0 || (System.nanoTime() - start) / 1000000L <= timeOut)
+			return false;
+		timeOuts[p]++;
+		return enforceTimeOut;
+	}
+
+	//update_map with the regions of the player and their neighbors
+	private String[] visibleRegionsMessage(int p)
+	{
+		boolean[] visible = new boolean[regionsById.length];
+		for(Region region : map.getRegions())
+		{
+			if(region.ownedByPlayer(PLAYER_NAMES[p]))
+			{
+				visible[region.getId()] = true;
+				for(Region neighbor : region.getNeighbors())
+					visible[neighbor.getId()] = true;
+			}
+		}
+		ArrayList<String> parts = new ArrayList<String>();
+		parts.add("update_map");
+		for(Region region : map.getRegions())
+		{
+			if(visible[region.getId()])
+			{
+				parts.add(String.valueOf(region.getId()));
+				parts.add(region.getPlayerName());
+				parts.add(String.valueOf(region.getArmies()));
+			}
+		}
+		return parts.toArray(new String[parts.size()]);
+	}
+
+	//illegal moves are skipped, armies beyond the number the player has are not placed
+	private void placeArmies(int p, ArrayList<PlaceArmiesMove> moves, int armiesToPlace)
+	{
+		int armiesLeft = armiesToPlace;
+		for(PlaceArmiesMove move : moves)
+		{
+			if(move == null)
+				continue;
+			Region region = region(move.getRegion());
+			int armies = Math.min(move.getArmies(), armiesLeft);
+			if(region == null || !region.ownedByPlayer(PLAYER_NAMES[p]) || armies <= 0)
+				continue;
+			region.setArmies(region.getArmies() + armies);
+			armiesLeft -= armies;
+		}
+	}
+
+	//a move to a region of the player is a transfer, otherwise it's an attack; ownership is checked when the move is executed
+	private void attackTransfer(int p, AttackTransferMove move)
+	{
+		if(move == null)
+			return;
+		String playerName = PLAYER_NAMES[p];
+		Region fromRegion = region(move.getFromRegion());
+		Region toRegion = region(move.getToRegion());
+		if(fromRegion == null || toRegion == null || !fromRegion.ownedByPlayer(playerName) || !fromRegion.isNeighbor(toRegion))
+			return;
+		int armies = Math.min(move.getArmies(), Math.min(movable[fromRegion.getId()], fromRegion.getArmies() - 1));
+		if(armies <= 0)
+			return;
+		movable[fromRegion.getId()] -= armies;
+
+		if(toRegion.ownedByPlayer(playerName))
+		{
+			fromRegion.setArmies(fromRegion.getArmies() - armies);
+			toRegion.setArmies(toRegion.getArmies() + armies);
+		}
+		else
+			attack(playerName, fromRegion, toRegion, armies);
+	}
+
+	private void attack(String playerName, Region fromRegion, Region toRegion, int attackingArmies)
+	{
+		int defendingArmies = toRegion.getArmies();
+		int defendersDestroyed = kills(attackingArmies, ATTACKER_KILL_CHANCE);
+		int attackersDestroyed = kills(defendingArmies, DEFENDER_KILL_CHANCE);
+
+		if(defendersDestroyed >= defendingArmies && attackersDestroyed < attackingArmies)
+		{
+			//captured, the surviving attackers move in and can't move again this round
+			fromRegion.setArmies(fromRegion.getArmies() - attackingArmies);
+			toRegion.setPlayerName(playerName);
+			toRegion.setArmies(attackingArmies - attackersDestroyed);
+			movable[toRegion.getId()] = 0;
+		}
+		else
+		{
+			//the surviving attackers go back, the defender always keeps at least one army
+			fromRegion.setArmies(fromRegion.getArmies() - Math.min(attackersDestroyed, attackingArmies));
+			toRegion.setArmies(Math.max(1, defendingArmies - defendersDestroyed));
+		}
+	}
+
+	private int kills(int armies, double killChance)
+	{
+		int kills = 0;
+		for(int i=0; i<armies; i++)
+			if(random.nextDouble() < killChance)
+				kills++;
+		return kills;
+	}
+
+	/**
+	 * Plays games on the standard map and prints the results.
+	 * Arguments: bot1 bot2 [games] [timeOut] [seed], a bot is the package of its BotStarter, like borderBot.
+	 * Players switch seats every game.
+	 */
+	public static void main(String[] args)
+	{
+		if(args.length < 2)
+		{
+			System.err.println("usage: LocalEngine bot1 bot2 [games] [timeOut] [seed]");
+			return;
+		}
+		int games = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		long timeOut = args.length > 3 ? Long.parseLong(args[3]) : 0;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+		BotPackage[] bots = {new BotPackage(args[0]), new BotPackage(args[1])};
+		int[] wins = new int[2];
+		int draws = 0;
+		long rounds = 0;
+		long start = System.nanoTime();
+		for(int game=0; game<games; game++)
+		{
+			boolean swap = game % 2 == 1;
+			BotPackagePlayer player1 = bots[swap ? 1 : 0].newPlayer();
+			BotPackagePlayer player2 = bots[swap ? 0 : 1].newPlayer();
+			player1.setRandomSeed((seed + game) * 31 + 1);
+			player2.setRandomSeed((seed + game) * 31 + 2);
+			LocalEngine engine = new LocalEngine(StandardMap.setupMessages(), player1, player2, seed + game);
+			engine.setTimeOut(timeOut);
+			GameResult result = engine.play();
+			rounds += result.getRounds();
+			if(result.isDraw())
+				draws++;
+			else
+				wins[(result.getWinner() == 1) != swap ? 0 : 1]++;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(bots[0].getName() + " " + wins[0] + " - " + wins[1] + " " + bots[1].getName() + ", " + draws + " draws");
+		System.out.printf("%d games, %.1f rounds per game, %.0f games per minute%n",
+				games, (double) rounds / Math.max(1, games), games / seconds * 60);
+	}
+
+}
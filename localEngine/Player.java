@@ -0,0 +1,31 @@
+package localEngine;
+
+import java.util.ArrayList;
+
+import main.Region;
+import move.AttackTransferMove;
+import move.PlaceArmiesMove;
+
+/**
+ * A bot as seen by the LocalEngine. The engine sends the same messages as over the engine protocol, already
+ * split into parts like BotParser does, and calls the bot directly for its moves. Returned regions and moves may
+ * refer to the bot's own Region objects, the engine only uses their ids.
+ */
+public interface Player {
+
+	public void updateSettings(String key, String value);
+
+	//setup_map super_regions/regions/neighbors
+	public void setupMap(String[] parts);
+
+	//pick_starting_regions timeOut ids...
+	public ArrayList<Region> getPreferredStartingRegions(String[] parts, long timeOut);
+
+	//update_map id player armies ...
+	public void updateMap(String[] parts);
+
+	public ArrayList<PlaceArmiesMove> getPlaceArmiesMoves(long timeOut);
+
+	public ArrayList<AttackTransferMove> getAttackTransferMoves(long timeOut);
+
+}
@@ -0,0 +1,287 @@
+package localEngine;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plays every pairing of a set of bots on the LocalEngine, on a fork-join pool with a thread per core, and keeps
+ * win rates and Elo ratings up to date while the games finish.
+ * Every game gets seeds for the engine and both bots derived from the tournament seed and the number of the game,
+ * and the Elo ratings are fitted to all results at once instead of depending on the order the games finished in,
+ * so a tournament played again with the same seed gives the same tables. With a timeOut above 0 the anytime
+ * search of botEvaluate depends on the clock and games can differ.
+ */
+public class Tournament {
+
+	static final double INITIAL_ELO = 1500;
+	static final int ELO_ITERATIONS = 200;
+
+	private final BotPackage[] bots;
+	private final int[][] pairings; //pairs of bot indices
+	private final long seed;
+	private final String[][] setupMessages;
+	private long timeOut = 0;
+
+	private final GameResult[] results; //by game number, game n is game n/pairings.length of pairing n%pairings.length
+	private final double[][] score; //score[a][b]: wins of bot a against bot b, draws counting half
+	private final int[][] games; //games played between bot a and bot b
+	private int finishedGames = 0;
+
+	public Tournament(BotPackage[] bots, int gamesPerPairing, long seed, String[][] setupMessages)
+	{
+		this.bots = bots;
+		this.seed = seed;
+		this.setupMessages = setupMessages;
+
+		pairings = new int[bots.length * (bots.length-1) / 2][];
+		int n = 0;
+		for(int a=0; a<bots.length; a++)
+			for(int b=a+1; b<bots.length; b++)
+				pairings[n++] = new int[] {a, b};
+		results = new GameResult[pairings.length * gamesPerPairing];
+		score = new double[bots.length][bots.length];
+		games = new int[bots.length][bots.length];
+
+		//fail before the games start when a bot can't be loaded
+		for(BotPackage bot : bots)
+			bot.newPlayer();
+	}
+
+	public void setTimeOut(long timeOut) {
+		this.timeOut = timeOut;
+	}
+
+	public int getNumGames() {
+		return results.length;
+	}
+
+	public synchronized int getFinishedGames() {
+		return finishedGames;
+	}
+
+	/**
+	 * Plays all games on a pool with the given number of threads, and prints the tables to progress
+	 * every reportMillis until the tournament is done.
+	 */
+	public void play(int threads, PrintStream progress, long reportMillis) throws InterruptedException
+	{
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			ForkJoinTask<Void> task = pool.submit(new Games(0, results.length));
+			while(true)
+			{
+				try {
+					task.get(reportMillis, TimeUnit.MILLISECONDS);
+					return;
+				}
+				catch(TimeoutException e) {
+					if(progress != null)
+					{
+						progress.println(getFinishedGames() + " of " + results.length + " games played");
+						printTables(progress);
+					}
+				}
+				catch(ExecutionException e) {
+					throw new RuntimeException(e.getCause());
+				}
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	//splits the games in halves until a task is one game
+	private class Games extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		Games(int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(to - from == 1)
+				playGame(from);
+			else if(to - from > 1)
+			{
+				int middle = (from + to) >>> 1;
+				invokeAll(new Games(from, middle), new Games(middle, to));
+			}
+		}
+
+	}
+
+	private void playGame(int game)
+	{
+		int[] pairing = pairings[game % pairings.length];
+		boolean swap = (game / pairings.length) % 2 == 1; //bots switch seats every game of a pairing
+		int bot1 = swap ? pairing[1] : pairing[0];
+		int bot2 = swap ? pairing[0] : pairing[1];
+
+		long gameSeed = mix(seed + game * 0x9E3779B97F4A7C15L);
+		BotPackagePlayer player1 = bots[bot1].newPlayer();
+		BotPackagePlayer player2 = bots[bot2].newPlayer();
+		player1.setRandomSeed(mix(gameSeed + 1));
+		player2.setRandomSeed(mix(gameSeed + 2));
+		LocalEngine engine = new LocalEngine(setupMessages, player1, player2, gameSeed);
+		engine.setTimeOut(timeOut);
+		GameResult result = engine.play();
+
+		synchronized(this)
+		{
+			results[game] = result;
+			if(result.isDraw())
+			{
+				score[bot1][bot2] += 0.5;
+				score[bot2][bot1] += 0.5;
+			}
+			else if(result.getWinner() == 1)
+				score[bot1][bot2] += 1;
+			else
+				score[bot2][bot1] += 1;
+			games[bot1][bot2]++;
+			games[bot2][bot1]++;
+			finishedGames++;
+		}
+	}
+
+	//the finalizer of SplitMix64, spreads neighboring seeds over all bits
+	static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	public synchronized GameResult getResult(int game) {
+		return results[game];
+	}
+
+	/**
+	 * Elo ratings that best explain the results so far (Bradley-Terry, fitted with Hunter's MM algorithm),
+	 * with an average of 1500. Every pairing counts one extra draw, so a bot that won all its games
+	 * still gets a finite rating.
+	 */
+	public synchronized double[] getElo()
+	{
+		int n = bots.length;
+		double[] strength = new double[n];
+		Arrays.fill(strength, 1);
+		for(int iteration=0; iteration<ELO_ITERATIONS; iteration++)
+		{
+			double[] next = new double[n];
+			double logSum = 0;
+			for(int a=0; a<n; a++)
+			{
+				double wins = 0;
+				double expected = 0;
+				for(int b=0; b<n; b++)
+				{
+					if(b == a)
+						continue;
+					wins += score[a][b] + 0.5;
+					expected += (games[a][b] + 1) / (strength[a] + strength[b]);
+				}
+				next[a] = wins / expected;
+				logSum += Math.log(next[a]);
+			}
+			double mean = Math.exp(logSum / n);
+			for(int a=0; a<n; a++)
+				strength[a] = next[a] / mean;
+		}
+		double[] elo = new double[n];
+		for(int a=0; a<n; a++)
+			elo[a] = INITIAL_ELO + 400 * Math.log10(strength[a]);
+		return elo;
+	}
+
+	/**
+	 * Prints the win rate of every bot against every other bot (row against column), and the total
+	 * score and Elo rating of every bot.
+	 */
+	public synchronized void printTables(PrintStream out)
+	{
+		int width = 6;
+		for(BotPackage bot : bots)
+			width = Math.max(width, bot.getName().length() + 1);
+		String nameColumn = "%-" + width + "s";
+		String rateColumn = "%" + width + "s";
+
+		out.printf(nameColumn, "");
+		for(BotPackage bot : bots)
+			out.printf(rateColumn, bot.getName());
+		out.println();
+		for(int a=0; a<bots.length; a++)
+		{
+			out.printf(nameColumn, bots[a].getName());
+			for(int b=0; b<bots.length; b++)
+			{
+				if(a == b || games[a][b] == 0)
+					out.printf(rateColumn, "-");
+				else
+					out.printf(rateColumn, String.format("%.1f%%", 100 * score[a][b] / games[a][b]));
+			}
+			out.println();
+		}
+		out.println();
+
+		double[] elo = getElo();
+		out.printf(nameColumn + "%8s%8s%8s%8s%n", "", "games", "score", "win %", "elo");
+		for(int a=0; a<bots.length; a++)
+		{
+			int played = 0;
+			double total = 0;
+			for(int b=0; b<bots.length; b++)
+			{
+				played += games[a][b];
+				total += score[a][b];
+			}
+			out.printf(nameColumn + "%8d%8.1f%8.1f%8.0f%n", bots[a].getName(), played, total,
+					played == 0 ? 0 : 100 * total / played, elo[a]);
+		}
+	}
+
+	/**
+	 * Plays a tournament on the standard map and prints the tables.
+	 * Arguments: gamesPerPairing seed timeOut bot bot [bot...], a bot is the package of its BotStarter, like borderBot.
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		if(args.length < 5)
+		{
+			System.err.println("usage: Tournament gamesPerPairing seed timeOut bot bot [bot...]");
+			return;
+		}
+		int gamesPerPairing = Integer.parseInt(args[0]);
+		long seed = Long.parseLong(args[1]);
+		long timeOut = Long.parseLong(args[2]);
+		BotPackage[] bots = new BotPackage[args.length - 3];
+		for(int i=0; i<bots.length; i++)
+			bots[i] = new BotPackage(args[i+3]);
+
+		Tournament tournament = new Tournament(bots, gamesPerPairing, seed, StandardMap.setupMessages());
+		tournament.setTimeOut(timeOut);
+		int threads = Runtime.getRuntime().availableProcessors();
+		long start = System.nanoTime();
+		tournament.play(threads, System.out, 10000);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		tournament.printTables(System.out);
+		System.out.printf("%d games on %d threads in %.1f s%n", tournament.getNumGames(), threads, seconds);
+	}
+
+}
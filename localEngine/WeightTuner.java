@@ -0,0 +1,186 @@
+package localEngine;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import botEvaluate.BotStarter;
+import botEvaluate.Weights;
+
+/**
+ * Tunes the Weights of botEvaluate by self-play with SPSA (simultaneous perturbation stochastic approximation):
+ * every iteration all weights are moved at once by a random +-step, the bot with the weights moved up plays the
+ * bot with the weights moved down, and all weights go in the direction of the winner, by how clearly it won.
+ * Steps are measured in the scale of each weight, so weights of different sizes tune at the same pace.
+ * The games of an iteration are played in parallel on a fork-join pool with a thread per core, on the standard
+ * map with a timeOut of 0, so botEvaluate plays its greedy evaluation and the same seed tunes the same weights.
+ * The weights are written to the output file after every iteration. At the end the tuned weights play the
+ * defaults on new games, and the better of the two is written: the file botEvaluate loads with -DevaluateWeights.
+ */
+public class WeightTuner {
+
+	static final double GAIN = 2; //a of the SPSA step size a / (k + 1 + STABILITY)^ALPHA, in scales
+	static final double STABILITY = 10;
+	static final double ALPHA = 0.602;
+	static final double PERTURBATION = 1; //c of the perturbation c / (k + 1)^GAMMA, in scales
+	static final double GAMMA = 0.101;
+	static final int VALIDATION_GAMES = 200;
+
+	private final int gamesPerIteration; //even, every game is played from both seats
+	private final long seed;
+	private final ForkJoinPool pool;
+	private final String[][] setupMessages = StandardMap.setupMessages();
+
+	public WeightTuner(int gamesPerIteration, long seed, int threads)
+	{
+		this.gamesPerIteration = gamesPerIteration + gamesPerIteration % 2;
+		this.seed = seed;
+		this.pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Runs the iterations from the start weights, writing the weights to the file after every iteration.
+	 * @return the tuned weights
+	 */
+	public Weights tune(Weights start, int iterations, String file) throws IOException
+	{
+		int n = Weights.size();
+		double[] theta = start.toArray();
+		Random random = new Random(seed);
+		for(int k=0; k<iterations; k++)
+		{
+			double step = GAIN / Math.pow(k + 1 + STABILITY, ALPHA);
+			double perturbation = PERTURBATION / Math.pow(k + 1, GAMMA);
+			int[] delta = new int[n];
+			double[] plus = new double[n];
+			double[] minus = new double[n];
+			for(int i=0; i<n; i++)
+			{
+				delta[i] = random.nextBoolean() ? 1 : -1;
+				plus[i] = theta[i] + perturbation * delta[i] * Weights.getScale(i);
+				minus[i] = theta[i] - perturbation * delta[i] * Weights.getScale(i);
+			}
+
+			double share = play(new Weights(plus), new Weights(minus), Tournament.mix(seed + k), gamesPerIteration);
+			//(f(plus) - f(minus)) / (2 c delta) with f the share of games won, f(minus) = 1 - f(plus)
+			for(int i=0; i<n; i++)
+				theta[i] += step * (2 * share - 1) / (2 * perturbation * delta[i]) * Weights.getScale(i);
+			Weights current = new Weights(theta);
+			theta = current.toArray(); //clamped to the ranges
+
+			System.out.printf("iteration %d: plus won %.1f%%, %s%n", k+1, 100 * share, current);
+			current.write(file, "iteration " + (k+1) + " of " + iterations + ", seed " + seed);
+		}
+		return new Weights(theta);
+	}
+
+	/**
+	 * Plays the games of the seed in parallel, each from both seats.
+	 * @return the share of the games won by the first weights, draws counting half
+	 */
+	public double play(Weights first, Weights second, long seed, int games)
+	{
+		double[] scores = new double[games];
+		pool.invoke(new Games(first, second, seed, scores, 0, games));
+		double sum = 0;
+		for(double score : scores)
+			sum += score;
+		return sum / games;
+	}
+
+	//splits the games in halves until a task is one game
+	private class Games extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Weights first;
+		private final Weights second;
+		private final long seed;
+		private final double[] scores; //of the first weights, by game
+		private final int from;
+		private final int to;
+
+		Games(Weights first, Weights second, long seed, double[] scores, int from, int to)
+		{
+			this.first = first;
+			this.second = second;
+			this.seed = seed;
+			this.scores = scores;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(to - from == 1)
+				scores[from] = playGame(first, second, seed, from);
+			else if(to - from > 1)
+			{
+				int middle = (from + to) >>> 1;
+				invokeAll(new Games(first, second, seed, scores, from, middle), new Games(first, second, seed, scores, middle, to));
+			}
+		}
+
+	}
+
+	//game 2m and 2m+1 are the same game with the seats switched
+	private double playGame(Weights first, Weights second, long seed, int game)
+	{
+		boolean swap = game % 2 == 1;
+		long gameSeed = Tournament.mix(seed + (game / 2) * 0x9E3779B97F4A7C15L);
+		BotPackagePlayer player1 = new BotPackagePlayer(new BotStarter(swap ? second : first));
+		BotPackagePlayer player2 = new BotPackagePlayer(new BotStarter(swap ? first : second));
+		player1.setRandomSeed(Tournament.mix(gameSeed + 1));
+		player2.setRandomSeed(Tournament.mix(gameSeed + 2));
+		GameResult result = new LocalEngine(setupMessages, player1, player2, gameSeed).play();
+		if(result.isDraw())
+			return 0.5;
+		return (result.getWinner() == 1) != swap ? 1 : 0;
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Arguments: iterations gamesPerIteration seed outputFile [startFile]
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if(args.length < 4)
+		{
+			System.err.println("usage: WeightTuner iterations gamesPerIteration seed outputFile [startFile]");
+			return;
+		}
+		int iterations = Integer.parseInt(args[0]);
+		int gamesPerIteration = Integer.parseInt(args[1]);
+		long seed = Long.parseLong(args[2]);
+		String file = args[3];
+		Weights start = args.length > 4 ? Weights.read(args[4]) : new Weights();
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		WeightTuner tuner = new WeightTuner(gamesPerIteration, seed, threads);
+		long time = System.nanoTime();
+		try {
+			Weights tuned = tuner.tune(start, iterations, file);
+
+			//new games, so the tuned weights are not judged on the games they were tuned on
+			double share = tuner.play(tuned, new Weights(), Tournament.mix(seed - 1), VALIDATION_GAMES);
+			System.out.printf("tuned weights won %.1f%% of %d games against the defaults%n", 100 * share, VALIDATION_GAMES);
+			if(share >= 0.5)
+				tuned.write(file, String.format("tuned in %d iterations, seed %d, won %.1f%% against the defaults", iterations, seed, 100 * share));
+			else
+			{
+				new Weights().write(file, String.format("defaults, the weights tuned in %d iterations with seed %d won %.1f%%", iterations, seed, 100 * share));
+				System.out.println("the defaults were written");
+			}
+		}
+		finally {
+			tuner.shutdown();
+		}
+		System.out.printf("%.1f s on %d threads%n", (System.nanoTime() - time) / 1e9, threads);
+	}
+
+}